@@ -0,0 +1,52 @@
+package org.example;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Odczyt atrybutow pojazdu: MapToJsonConverter kontra ObjectMapper.readValue do HashMap (poprzednia wersja).
+ * Uruchomienie: mvn -Pjmh test-compile exec:exec, alokacje: -Djmh.args="-prof gc".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapToJsonConverterBenchmark {
+    private static final TypeReference<Map<String, String>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    // typowy pojazd (4 atrybuty) i pojazd z dluga unikalna wartoscia oraz ponad 4 atrybutami
+    @Param({
+            "{\"color\":\"red\",\"fuel\":\"petrol\",\"gearbox\":\"manual\",\"seats\":\"5\"}",
+            "{\"color\":\"black\",\"fuel\":\"diesel\",\"gearbox\":\"automatic\",\"seats\":\"7\",\"vin\":\"WVWZZZ1JZXW000001\",\"licence\":\"B\"}"
+    })
+    public String json;
+
+    private final MapToJsonConverter converter = new MapToJsonConverter();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Benchmark
+    public Map<String, String> converter() {
+        return converter.convertToEntityAttribute(json);
+    }
+
+    @Benchmark
+    public Map<String, String> objectMapper() throws Exception {
+        return objectMapper.readValue(json, MAP_TYPE);
+    }
+}
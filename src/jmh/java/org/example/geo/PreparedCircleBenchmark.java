@@ -0,0 +1,70 @@
+package org.example.geo;
+
+import org.example.model.AllowedLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test punkt-w-strefie dla jednej strefy kolowej: PreparedCircle (prostokat, potem haversine bez atan2)
+ * kontra calculateDistance na BigDecimal. Wiekszosc punktow lezy poza prostokatem, jak przy skanie wielu stref.
+ * Uruchomienie: mvn -Pjmh test-compile exec:exec -Djmh.args="PreparedCircleBenchmark -prof gc".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreparedCircleBenchmark {
+    private static final int POINTS = 4096;
+
+    private AllowedLocation location;
+    private PreparedCircle circle;
+    private BigDecimal[] latitudes;
+    private BigDecimal[] longitudes;
+    private double[] latitudesDouble;
+    private double[] longitudesDouble;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        location = new AllowedLocation(1L, "strefa", new BigDecimal("52.22920000"), new BigDecimal("21.01220000"), 1000, false);
+        circle = new PreparedCircle(location);
+        Random random = new Random(7);
+        latitudes = new BigDecimal[POINTS];
+        longitudes = new BigDecimal[POINTS];
+        latitudesDouble = new double[POINTS];
+        longitudesDouble = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = ZoneGridBenchmark.coordinate(random, 52.2292);
+            longitudes[i] = ZoneGridBenchmark.coordinate(random, 21.0122);
+            latitudesDouble[i] = latitudes[i].doubleValue();
+            longitudesDouble[i] = longitudes[i].doubleValue();
+        }
+    }
+
+    @Benchmark
+    public boolean preparedCircle() {
+        int i = next++ & (POINTS - 1);
+        return circle.contains(latitudesDouble[i], longitudesDouble[i]);
+    }
+
+    @Benchmark
+    public boolean calculateDistance() {
+        int i = next++ & (POINTS - 1);
+        return ZoneGridBenchmark.calculateDistance(latitudes[i], longitudes[i], location.getLatitude(), location.getLongitude())
+                <= location.getRadiusMeters();
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.geo;
+
+import org.example.model.AllowedLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Czy punkt lezy w ktorejs strefie: ZoneGrid kontra pelny skan z haversine na BigDecimal
+ * (VehicleLocationService.isLocationAllowed sprzed indeksu, bez zapytania findAllActive).
+ * Uruchomienie: mvn -Pjmh test-compile exec:exec -Djmh.args="ZoneGridBenchmark".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZoneGridBenchmark {
+    private static final int POINTS = 4096;
+
+    @Param({"100", "1000", "5000"})
+    public int zoneCount;
+
+    private List<AllowedLocation> zones;
+    private ZoneGrid grid;
+    private BigDecimal[] latitudes;
+    private BigDecimal[] longitudes;
+    private double[] latitudesDouble;
+    private double[] longitudesDouble;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        // strefy 50 m - 2 km rozrzucone po okolicy Warszawy, jak w LocationSimulationJob
+        zones = new ArrayList<>(zoneCount);
+        for (long id = 1; id <= zoneCount; id++) {
+            zones.add(new AllowedLocation(id, "strefa " + id, coordinate(random, 52.2292), coordinate(random, 21.0122),
+                    50 + random.nextInt(2000), false));
+        }
+        grid = ZoneGrid.build(zones);
+
+        latitudes = new BigDecimal[POINTS];
+        longitudes = new BigDecimal[POINTS];
+        latitudesDouble = new double[POINTS];
+        longitudesDouble = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = coordinate(random, 52.2292);
+            longitudes[i] = coordinate(random, 21.0122);
+            latitudesDouble[i] = latitudes[i].doubleValue();
+            longitudesDouble[i] = longitudes[i].doubleValue();
+        }
+    }
+
+    @Benchmark
+    public boolean zoneGrid() {
+        int i = next++ & (POINTS - 1);
+        return grid.anyContains(latitudesDouble[i], longitudesDouble[i]);
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        int i = next++ & (POINTS - 1);
+        for (AllowedLocation location : zones) {
+            double distance = calculateDistance(latitudes[i], longitudes[i], location.getLatitude(), location.getLongitude());
+            if (distance <= location.getRadiusMeters()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // kopia VehicleLocationService.calculateDistance sprzed zmian
+    static double calculateDistance(BigDecimal lat1, BigDecimal long1, BigDecimal lat2, BigDecimal long2) {
+        double lat1Rad = Math.toRadians(lat1.doubleValue());
+        double long1Rad = Math.toRadians(long1.doubleValue());
+        double lat2Rad = Math.toRadians(lat2.doubleValue());
+        double long2Rad = Math.toRadians(long2.doubleValue());
+
+        double dLat = lat2Rad - lat1Rad;
+        double dLong = long2Rad - long1Rad;
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(lat1Rad) * Math.cos(lat2Rad) *
+                        Math.sin(dLong / 2) * Math.sin(dLong / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return 6371000 * c;
+    }
+
+    // +-0.1 stopnia od bazy, skala 8 jak kolumny latitude/longitude
+    static BigDecimal coordinate(Random random, double base) {
+        return BigDecimal.valueOf(base + (random.nextDouble() - 0.5) * 0.2).setScale(8, RoundingMode.HALF_UP);
+    }
+}
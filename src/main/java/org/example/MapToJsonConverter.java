@@ -1,20 +1,41 @@
 package org.example;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Atrybuty pojazdu (jsonb) czytane strumieniowo, bez TypeReference i posredniej HashMap.
+ * Nazwy pol kanonizuje parser Jacksona, krotkie wartosci (kolor, paliwo...) ida przez slownik,
+ * wynik to niemodyfikowalna mapa Map.of - jedna tablica zamiast wezlow HashMap.
+ */
 @Converter
 public class MapToJsonConverter implements AttributeConverter<Map<String, String>, String> {
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectReader reader = objectMapper.reader();
+    private static final ObjectWriter writer = objectMapper.writer();
+
+    // slownik o stalym rozmiarze - dlugie lub unikalne wartosci (np. VIN) nie zapelniaja pamieci
+    private static final int MAX_DICTIONARY_VALUE_LENGTH = 32;
+    private static final int DICTIONARY_SIZE = 4096;
+    private static final String[] dictionary = new String[DICTIONARY_SIZE];
 
     @Override
     public String convertToDatabaseColumn(Map<String, String> map) {
+        if (map == null) {
+            return null;
+        }
         try {
-            return objectMapper.writeValueAsString(map);
+            return writer.writeValueAsString(map);
         } catch (Exception e) {
             throw new RuntimeException("Could not convert map to JSON", e);
         }
@@ -22,10 +43,95 @@ public class MapToJsonConverter implements AttributeConverter<Map<String, String
 
     @Override
     public Map<String, String> convertToEntityAttribute(String json) {
-        try {
-            return objectMapper.readValue(json, new TypeReference<>() {});
+        if (json == null) {
+            return null;
+        }
+        try (JsonParser parser = reader.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected JSON object");
+            }
+            // klucz, wartosc, klucz, wartosc...
+            String[] pairs = new String[8];
+            int size = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String key = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException("Attribute " + key + " is not a scalar value");
+                }
+                // null nie moze trafic do Map.of, a brak klucza znaczy to samo
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                if (size == pairs.length) {
+                    pairs = Arrays.copyOf(pairs, size * 2);
+                }
+                pairs[size++] = key;
+                pairs[size++] = value(parser);
+            }
+            return toMap(pairs, size);
         } catch (Exception e) {
             throw new RuntimeException("Could not convert JSON to map", e);
         }
     }
-}
\ No newline at end of file
+
+    // Map.of dla typowych kilku atrybutow - bez tablicy wpisow
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<String, String> toMap(String[] p, int size) {
+        try {
+            return switch (size / 2) {
+                case 0 -> Map.of();
+                case 1 -> Map.of(p[0], p[1]);
+                case 2 -> Map.of(p[0], p[1], p[2], p[3]);
+                case 3 -> Map.of(p[0], p[1], p[2], p[3], p[4], p[5]);
+                case 4 -> Map.of(p[0], p[1], p[2], p[3], p[4], p[5], p[6], p[7]);
+                default -> {
+                    Map.Entry<String, String>[] entries = new Map.Entry[size / 2];
+                    for (int i = 0; i < entries.length; i++) {
+                        entries[i] = Map.entry(p[2 * i], p[2 * i + 1]);
+                    }
+                    yield Map.ofEntries(entries);
+                }
+            };
+        } catch (IllegalArgumentException duplicateKey) {
+            // jsonb nie ma powtorzonych kluczy, ale tekst z innego zrodla moze miec - wygrywa ostatni
+            Map<String, String> map = new HashMap<>();
+            for (int i = 0; i < size; i += 2) {
+                map.put(p[i], p[i + 1]);
+            }
+            return Map.copyOf(map);
+        }
+    }
+
+    // slownik bezposrednio adresowany hashem znakow - trafienie nie tworzy nowego Stringa,
+    // kolizja nadpisuje slot (wyscig miedzy watkami jest nieszkodliwy, String jest niezmienny)
+    private static String value(JsonParser parser) throws IOException {
+        int length = parser.getTextLength();
+        if (length > MAX_DICTIONARY_VALUE_LENGTH) {
+            return parser.getText();
+        }
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars[offset + i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (DICTIONARY_SIZE - 1);
+        String cached = dictionary[slot];
+        if (cached != null && cached.length() == length && matches(cached, chars, offset)) {
+            return cached;
+        }
+        String value = new String(chars, offset, length);
+        dictionary[slot] = value;
+        return value;
+    }
+
+    private static boolean matches(String value, char[] chars, int offset) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -13,6 +13,7 @@ import org.example.dto.PaymentResponse;
 import org.example.model.PaymentStatus;
 import org.example.service.PaymentService;
 import org.springframework.security.core.Authentication;
+import org.example.dto.RentalSummary;
 import org.example.model.Rental;
 import org.example.model.User;
 import org.example.service.RentalService;
@@ -51,7 +52,7 @@ public class RentalController {
             @ApiResponse(responseCode = "200", description = "Lista aktywnych wypożyczeń"),
             @ApiResponse(responseCode = "403", description = "Brak uprawnień administratora")
     })
-    public ResponseEntity<List<Rental>> getAllRentals() {
+    public ResponseEntity<List<RentalSummary>> getAllRentals() {
         return ResponseEntity.ok(rentalService.allActiveRentlas());
     }
 
@@ -81,7 +82,7 @@ public class RentalController {
             @ApiResponse(responseCode = "200", description = "Historia wypożyczeń użytkownika"),
             @ApiResponse(responseCode = "403", description = "Brak uprawnień")
     })
-    public ResponseEntity<List<Rental>> getRentalHistoryByUserId(
+    public ResponseEntity<List<RentalSummary>> getRentalHistoryByUserId(
             @Parameter(description = "ID użytkownika", required = true)
             @PathVariable Long userId) {
         return ResponseEntity.ok(rentalService.historyByUserId(userId));
@@ -97,7 +98,7 @@ public class RentalController {
             @ApiResponse(responseCode = "200", description = "Historia wypożyczeń pojazdu"),
             @ApiResponse(responseCode = "403", description = "Brak uprawnień administratora")
     })
-    public ResponseEntity<List<Rental>> getRentalHistoryByVehicleId(
+    public ResponseEntity<List<RentalSummary>> getRentalHistoryByVehicleId(
             @Parameter(description = "ID pojazdu", required = true)
             @PathVariable Long vehicleId) {
         return ResponseEntity.ok(rentalService.historyByVehicleId(vehicleId));
@@ -113,7 +114,7 @@ public class RentalController {
             @ApiResponse(responseCode = "200", description = "Pełna historia wypożyczeń"),
             @ApiResponse(responseCode = "403", description = "Brak uprawnień administratora")
     })
-    public ResponseEntity<List<Rental>> getAllRentalHistory() {
+    public ResponseEntity<List<RentalSummary>> getAllRentalHistory() {
         return ResponseEntity.ok(rentalService.allRentalHistory());
     }
 
@@ -127,7 +128,7 @@ public class RentalController {
             @ApiResponse(responseCode = "200", description = "Historia wypożyczeń użytkownika"),
             @ApiResponse(responseCode = "400", description = "Błąd autoryzacji użytkownika")
     })
-    public ResponseEntity<List<Rental>> getMyRentalHistory(Authentication authentication) {
+    public ResponseEntity<List<RentalSummary>> getMyRentalHistory(Authentication authentication) {
         User user = userService.findByLogin(authentication.getName());
         if (user == null) {
             return ResponseEntity.badRequest().build();
@@ -152,7 +153,7 @@ public class RentalController {
             return ResponseEntity.badRequest().body("Nieprawidłowy użytkownik");
         }
 
-        List<Rental> activeRentals = rentalService.findActiveRentalByUserId(user.getId());
+        List<RentalSummary> activeRentals = rentalService.findActiveRentalByUserId(user.getId());
 
         if (activeRentals.isEmpty()) {
             return ResponseEntity.status(204).body("Brak aktywnych wypożyczeń.");
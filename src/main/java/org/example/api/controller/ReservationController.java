@@ -0,0 +1,144 @@
+package org.example.api.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.dto.ReservationRequest;
+import org.example.model.Reservation;
+import org.example.model.User;
+import org.example.service.ReservationService;
+import org.example.service.UserService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reservations")
+@Tag(name = "Rezerwacje", description = "Rezerwacje pojazdów na przyszłe terminy")
+@SecurityRequirement(name = "bearerAuth")
+public class ReservationController {
+    private final ReservationService reservationService;
+    private final UserService userService;
+
+    public ReservationController(ReservationService reservationService, UserService userService) {
+        this.reservationService = reservationService;
+        this.userService = userService;
+    }
+
+    @PostMapping
+    @PreAuthorize("hasAuthority('user') or hasAuthority('admin')")
+    @Operation(summary = "Zarezerwuj pojazd",
+            description = "Rezerwuje pojazd na przedział [startTime, endTime) dla zalogowanego użytkownika")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rezerwacja utworzona"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy termin lub pojazd"),
+            @ApiResponse(responseCode = "409", description = "Pojazd jest już zarezerwowany w tym terminie"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<?> createReservation(@RequestBody ReservationRequest request, Authentication authentication) {
+        User user = userService.findByLogin(authentication.getName());
+        if (user == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(reservationService.create(request.getVehicleId(), user.getId(),
+                    request.getStartTime(), request.getEndTime()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Błąd: " + e.getMessage());
+        } catch (IllegalStateException | DataIntegrityViolationException e) {
+            // DataIntegrityViolationException - ograniczenie wykluczajace w bazie
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Błąd: Pojazd jest już zarezerwowany w tym terminie!");
+        }
+    }
+
+    @PostMapping("/cancel/{reservationId}")
+    @PreAuthorize("hasAuthority('user') or hasAuthority('admin')")
+    @Operation(summary = "Anuluj rezerwację", description = "Użytkownik może anulować tylko własne rezerwacje, administrator dowolne")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rezerwacja anulowana"),
+            @ApiResponse(responseCode = "404", description = "Nie znaleziono rezerwacji"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<?> cancelReservation(@PathVariable Long reservationId, Authentication authentication) {
+        User user = userService.findByLogin(authentication.getName());
+        if (user == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Reservation reservation = reservationService.findById(reservationId);
+        if (reservation == null) {
+            return ResponseEntity.notFound().build();
+        }
+        boolean isAdmin = authentication.getAuthorities().stream().anyMatch(a -> "admin".equals(a.getAuthority()));
+        if (!isAdmin && !reservation.getUserId().equals(user.getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Brak uprawnień do anulowania tej rezerwacji!");
+        }
+        return ResponseEntity.ok(reservationService.cancel(reservationId));
+    }
+
+    @GetMapping("/my")
+    @PreAuthorize("hasAuthority('user') or hasAuthority('admin')")
+    @Operation(summary = "Moje rezerwacje", description = "Rezerwacje zalogowanego użytkownika, również anulowane i zakończone")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista rezerwacji"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<List<Reservation>> getMyReservations(Authentication authentication) {
+        User user = userService.findByLogin(authentication.getName());
+        if (user == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(reservationService.findByUserId(user.getId()));
+    }
+
+    @GetMapping("/vehicle/{vehicleId}")
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = "Rezerwacje pojazdu", description = "Wszystkie rezerwacje pojazdu (tylko dla administratorów)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista rezerwacji"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień administratora")
+    })
+    public ResponseEntity<List<Reservation>> getVehicleReservations(@PathVariable Long vehicleId) {
+        return ResponseEntity.ok(reservationService.findByVehicleId(vehicleId));
+    }
+
+    @GetMapping("/availability")
+    @PreAuthorize("hasAuthority('user') or hasAuthority('admin')")
+    @Operation(summary = "Pojazdy wolne w terminie",
+            description = "Id pojazdów bez rezerwacji w przedziale [from, to), liczone w pamięci. " +
+                    "Dla terminu, który już trwa, pomijane są też pojazdy aktualnie wypożyczone")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Strona id wolnych pojazdów"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy termin, kursor lub rozmiar strony"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<?> getAvailableVehicles(
+            @Parameter(description = "Początek terminu, np. 2025-07-01T10:00", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Koniec terminu", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Typ pojazdu: Car, Motorcycle")
+            @RequestParam(required = false) String type,
+            @Parameter(description = "Kursor z poprzedniej strony (id ostatniego pojazdu)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Rozmiar strony (1-500)")
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(reservationService.findAvailableVehicles(from, to, type, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Błąd: " + e.getMessage());
+        }
+    }
+}
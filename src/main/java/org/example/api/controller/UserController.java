@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import org.example.dto.AddRoleRequest;
 import org.example.dto.MessageResponse;
+import org.example.dto.UserSummary;
 import org.example.model.User;
 import org.example.service.UserService;
 import org.springframework.http.ResponseEntity;
@@ -34,10 +35,10 @@ public class UserController {
     @Operation(summary = "Pobierz aktywnych użytkowników", description = "Zwraca listę wszystkich aktywnych użytkowników")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista aktywnych użytkowników",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = User.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserSummary.class))),
             @ApiResponse(responseCode = "403", description = "Brak uprawnień - wymagane uprawnienia administratora")
     })
-    public ResponseEntity<List<User>> getActiveUsers() {
+    public ResponseEntity<List<UserSummary>> getActiveUsers() {
         return ResponseEntity.ok(userService.findAllActiveUsers());
     }
 
@@ -107,10 +108,10 @@ public class UserController {
     @Operation(summary = "Pobierz usuniętych użytkowników", description = "Zwraca listę usuniętych użytkowników")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista usuniętych użytkowników",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = User.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserSummary.class))),
             @ApiResponse(responseCode = "403", description = "Brak uprawnień - wymagane uprawnienia administratora")
     })
-    public ResponseEntity<List<User>> getDeletedUsers() {
+    public ResponseEntity<List<UserSummary>> getDeletedUsers() {
         return ResponseEntity.ok(userService.findAllDeletedUsers());
     }
 
@@ -119,11 +120,11 @@ public class UserController {
     @Operation(summary = "Pobierz wszystkich użytkowników", description = "Zwraca listę wszystkich użytkowników (aktywnych i usuniętych)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista wszystkich użytkowników",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = User.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserSummary.class))),
             @ApiResponse(responseCode = "403", description = "Brak uprawnień - wymagane uprawnienia administratora")
     })
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.findAll());
+    public ResponseEntity<List<UserSummary>> getAllUsers() {
+        return ResponseEntity.ok(userService.findAllSummaries());
     }
 
     @PostMapping("/addrole/{userId}")
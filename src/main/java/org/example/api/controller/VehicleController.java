@@ -1,5 +1,9 @@
 package org.example.api.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,16 +13,37 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.example.dto.CacheStats;
+import org.example.dto.VehicleFacets;
+import org.example.dto.VehicleImportReport;
+import org.example.dto.VehicleListFilter;
+import org.example.dto.VehicleSearchCriteria;
+import org.example.dto.VehicleSortField;
+import org.example.dto.VehicleStatusFilter;
+import org.example.dto.VehicleSummary;
 import org.example.model.Car;
 import org.example.model.Motorcycle;
 import org.example.model.Vehicle;
+import org.example.service.CatalogVersionTracker;
+import org.example.service.VehicleAutocompleteIndex;
+import org.example.service.VehicleFacetCounter;
+import org.example.service.VehicleImportService;
 import org.example.service.VehicleService;
+import org.example.service.VehicleStatusIndex;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 
@@ -28,49 +53,260 @@ import java.util.Map;
 @SecurityRequirement(name = "bearerAuth")
 public class VehicleController {
     private final VehicleService vehicleService;
+    private final CatalogVersionTracker catalogVersionTracker;
+    private final VehicleAutocompleteIndex vehicleAutocompleteIndex;
+    private final VehicleStatusIndex vehicleStatusIndex;
+    private final VehicleImportService vehicleImportService;
+    private final VehicleFacetCounter vehicleFacetCounter;
+    private final ObjectWriter vehicleWriter;
 
-    public VehicleController(VehicleService vehicleService) {
+    public VehicleController(VehicleService vehicleService, CatalogVersionTracker catalogVersionTracker,
+                             VehicleAutocompleteIndex vehicleAutocompleteIndex, VehicleStatusIndex vehicleStatusIndex,
+                             VehicleImportService vehicleImportService, VehicleFacetCounter vehicleFacetCounter,
+                             ObjectMapper objectMapper) {
         this.vehicleService = vehicleService;
+        this.catalogVersionTracker = catalogVersionTracker;
+        this.vehicleAutocompleteIndex = vehicleAutocompleteIndex;
+        this.vehicleStatusIndex = vehicleStatusIndex;
+        this.vehicleImportService = vehicleImportService;
+        this.vehicleFacetCounter = vehicleFacetCounter;
+        this.vehicleWriter = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @GetMapping
     @PreAuthorize("hasAuthority('admin')")
     @Operation(summary = "Pobierz wszystkie pojazdy",
-            description = "Zwraca listę wszystkich pojazdów w systemie (tylko dla adminów)")
+            description = "Zwraca stronę pojazdów w systemie (tylko dla adminów), stronicowaną po ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista pojazdów pobrana pomyślnie",
-                    content = @Content(schema = @Schema(implementation = Vehicle.class))),
+                    content = @Content(schema = @Schema(implementation = VehicleSummary.class))),
+            @ApiResponse(responseCode = "304", description = "Lista nie zmieniła się od podanego ETag"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy rozmiar strony"),
             @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
             @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
     })
-    public ResponseEntity<List<Vehicle>> getAllVehicles() {
-        return ResponseEntity.ok(vehicleService.getAll());
+    public ResponseEntity<?> getAllVehicles(
+            @Parameter(description = "ID ostatniego pojazdu z poprzedniej strony (nextCursor)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Rozmiar strony (1-500)")
+            @RequestParam(defaultValue = "100") int limit,
+            WebRequest request) {
+        return page(VehicleListFilter.ALL, after, limit, request);
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasAuthority('user') or hasAuthority('admin')")
+    @Operation(summary = "Wyszukaj pojazdy",
+            description = "Filtruje pojazdy po marce, modelu, typie, roczniku, cenie, kategorii prawa jazdy i atrybutach; " +
+                    "sortowanie po id, cenie lub roczniku, stronicowanie kursorem. Użytkownicy widzą tylko dostępne pojazdy")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Strona wyników wyszukiwania",
+                    content = @Content(schema = @Schema(implementation = VehicleSummary.class))),
+            @ApiResponse(responseCode = "304", description = "Katalog nie zmienił się od podanego ETag"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowe kryteria, kursor lub rozmiar strony"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<?> searchVehicles(
+            @Parameter(description = "Zakres: ALL, ACTIVE, AVAILABLE, RENTED, DELETED (poza AVAILABLE tylko dla adminów)")
+            @RequestParam(defaultValue = "AVAILABLE") VehicleListFilter status,
+            @Parameter(description = "Typ pojazdu: Car, Motorcycle")
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String model,
+            @RequestParam(required = false) Integer yearFrom,
+            @RequestParam(required = false) Integer yearTo,
+            @RequestParam(required = false) Integer priceFrom,
+            @RequestParam(required = false) Integer priceTo,
+            @RequestParam(required = false) String licenceCategory,
+            @Parameter(description = "Atrybuty w postaci klucz:wartość, np. attr=color:red (wszystkie muszą pasować)")
+            @RequestParam(required = false) List<String> attr,
+            @Parameter(description = "Sortowanie: ID, PRICE, YEAR")
+            @RequestParam(defaultValue = "ID") VehicleSortField sort,
+            @RequestParam(defaultValue = "false") boolean desc,
+            @Parameter(description = "Kursor z poprzedniej strony (nextCursor)")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Rozmiar strony (1-500)")
+            @RequestParam(defaultValue = "100") int limit,
+            Authentication authentication,
+            WebRequest request) {
+        boolean isAdmin = authentication.getAuthorities().stream().anyMatch(a -> "admin".equals(a.getAuthority()));
+        if (!isAdmin && status != VehicleListFilter.AVAILABLE) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Brak uprawnień do wyszukiwania poza dostępnymi pojazdami!");
+        }
+        String etag = catalogVersionTracker.vehicleEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        try {
+            VehicleSearchCriteria criteria = new VehicleSearchCriteria();
+            criteria.setStatus(status);
+            criteria.setType(type);
+            criteria.setBrand(brand);
+            criteria.setModel(model);
+            criteria.setYearFrom(yearFrom);
+            criteria.setYearTo(yearTo);
+            criteria.setPriceFrom(priceFrom);
+            criteria.setPriceTo(priceTo);
+            criteria.setLicenceCategory(licenceCategory);
+            criteria.setSort(sort);
+            criteria.setDescending(desc);
+            if (attr != null) {
+                for (String pair : attr) {
+                    int separator = pair.indexOf(':');
+                    if (separator <= 0) {
+                        throw new IllegalArgumentException("atrybut musi mieć postać klucz:wartość - " + pair);
+                    }
+                    criteria.getAttributes().put(pair.substring(0, separator), pair.substring(separator + 1));
+                }
+            }
+            return ResponseEntity.ok().eTag(etag).body(vehicleService.search(criteria, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Błąd: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/autocomplete")
+    @PreAuthorize("hasAuthority('user') or hasAuthority('admin')")
+    @Operation(summary = "Podpowiedzi pojazdów",
+            description = "Podpowiada pojazdy po prefiksach marki, modelu lub numeru rejestracyjnego, z indeksu w pamięci")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista podpowiedzi"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy limit"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<?> autocomplete(
+            @Parameter(description = "Wpisany tekst, np. \"toy cor\"", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Maksymalna liczba podpowiedzi (1-50)")
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Tylko pojazdy niewypożyczone")
+            @RequestParam(defaultValue = "true") boolean availableOnly) {
+        if (limit < 1 || limit > 50) {
+            return ResponseEntity.badRequest().body("Błąd: limit musi być w przedziale 1-50!");
+        }
+        return ResponseEntity.ok(vehicleAutocompleteIndex.suggest(q, limit, availableOnly));
+    }
+
+    @GetMapping("/facets")
+    @PreAuthorize("hasAuthority('user') or hasAuthority('admin')")
+    @Operation(summary = "Liczby dostępnych pojazdów do filtrów wyszukiwania",
+            description = "Liczba dostępnych pojazdów według marki, typu, przedziału rocznika (5 lat) i przedziału ceny. " +
+                    "Liczniki są utrzymywane w pamięci i aktualizowane przy każdej zmianie pojazdu")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Liczniki pobrane pomyślnie",
+                    content = @Content(schema = @Schema(implementation = VehicleFacets.class))),
+            @ApiResponse(responseCode = "304", description = "Katalog nie zmienił się od podanego ETag"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<VehicleFacets> getFacets(WebRequest request) {
+        String etag = catalogVersionTracker.vehicleEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(vehicleFacetCounter.getFacets());
+    }
+
+    @GetMapping("/status-index")
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = "Pojazdy według kombinacji statusów",
+            description = "Liczba i id pojazdów spełniających wszystkie podane warunki, liczone na bitmapach w pamięci bez zapytania do bazy")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Wynik pobrany pomyślnie"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowe parametry"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<?> getByStatus(
+            @Parameter(description = "Wypożyczony") @RequestParam(required = false) Boolean rented,
+            @Parameter(description = "Usunięty") @RequestParam(required = false) Boolean deleted,
+            @Parameter(description = "W dozwolonej strefie") @RequestParam(required = false) Boolean atAllowedLocation,
+            @Parameter(description = "Typ pojazdu, np. Car, Motorcycle") @RequestParam(required = false) String type,
+            @Parameter(description = "Kursor z poprzedniej strony (id ostatniego pojazdu)") @RequestParam(required = false) Long after,
+            @Parameter(description = "Rozmiar strony (1-500)") @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > 500) {
+            return ResponseEntity.badRequest().body("Błąd: limit musi być w przedziale 1-500!");
+        }
+        VehicleStatusFilter filter = new VehicleStatusFilter(rented, deleted, atAllowedLocation, type);
+        return ResponseEntity.ok(vehicleStatusIndex.find(filter, after, limit));
+    }
+
+    @GetMapping("/available/cache-stats")
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = "Statystyki cache dostępnych pojazdów",
+            description = "Zwraca trafienia, chybienia, liczbę ładowań z bazy i poprawek zdarzeniami")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statystyki pobrane pomyślnie"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<CacheStats> getAvailableCacheStats() {
+        return ResponseEntity.ok(vehicleService.getAvailableCacheStats());
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = "Eksport wszystkich pojazdów",
+            description = "Strumieniuje (NDJSON) wszystkie pojazdy, odczytywane z bazy kursorem bez ładowania całej floty do pamięci")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Strumień pojazdów"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<StreamingResponseBody> exportVehicles() {
+        StreamingResponseBody body = out -> vehicleService.forEachVehicle(vehicle -> {
+            try {
+                vehicleWriter.writeValue(out, vehicle);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
     }
 
     @GetMapping("/active")
     @PreAuthorize("hasAuthority('admin')")
     @Operation(summary = "Pobierz aktywne pojazdy",
-            description = "Zwraca listę wszystkich aktywnych pojazdów")
+            description = "Zwraca stronę aktywnych pojazdów, stronicowaną po ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista aktywnych pojazdów pobrana pomyślnie"),
+            @ApiResponse(responseCode = "304", description = "Lista nie zmieniła się od podanego ETag"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy rozmiar strony"),
             @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
             @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
     })
-    public ResponseEntity<List<Vehicle>> getAllActiveVehicles() {
-        return ResponseEntity.ok(vehicleService.getAllActive());
+    public ResponseEntity<?> getAllActiveVehicles(
+            @Parameter(description = "ID ostatniego pojazdu z poprzedniej strony (nextCursor)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Rozmiar strony (1-500)")
+            @RequestParam(defaultValue = "100") int limit,
+            WebRequest request) {
+        return page(VehicleListFilter.ACTIVE, after, limit, request);
     }
 
     @GetMapping("/available")
     @PreAuthorize("hasAuthority('user') or hasAuthority('admin')")
     @Operation(summary = "Pobierz dostępne pojazdy",
-            description = "Zwraca listę pojazdów dostępnych do wypożyczenia")
+            description = "Zwraca stronę pojazdów dostępnych do wypożyczenia, stronicowaną po ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista dostępnych pojazdów pobrana pomyślnie"),
+            @ApiResponse(responseCode = "304", description = "Lista nie zmieniła się od podanego ETag"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy rozmiar strony"),
             @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
             @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
     })
-    public ResponseEntity<List<Vehicle>> getAvailableVehicles() {
-        return ResponseEntity.ok(vehicleService.getAvailable());
+    public ResponseEntity<?> getAvailableVehicles(
+            @Parameter(description = "ID ostatniego pojazdu z poprzedniej strony (nextCursor)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Rozmiar strony (1-500)")
+            @RequestParam(defaultValue = "100") int limit,
+            WebRequest request) {
+        return page(VehicleListFilter.AVAILABLE, after, limit, request);
     }
 
     @GetMapping("/{id}")
@@ -94,27 +330,94 @@ public class VehicleController {
     @GetMapping("/rented")
     @PreAuthorize("hasAuthority('admin')")
     @Operation(summary = "Pobierz wypożyczone pojazdy",
-            description = "Zwraca listę wszystkich obecnie wypożyczonych pojazdów")
+            description = "Zwraca stronę obecnie wypożyczonych pojazdów, stronicowaną po ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista wypożyczonych pojazdów pobrana pomyślnie"),
+            @ApiResponse(responseCode = "304", description = "Lista nie zmieniła się od podanego ETag"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy rozmiar strony"),
             @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
             @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
     })
-    public ResponseEntity<List<Vehicle>> getRentedVehicles() {
-        return ResponseEntity.ok(vehicleService.getRented());
+    public ResponseEntity<?> getRentedVehicles(
+            @Parameter(description = "ID ostatniego pojazdu z poprzedniej strony (nextCursor)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Rozmiar strony (1-500)")
+            @RequestParam(defaultValue = "100") int limit,
+            WebRequest request) {
+        return page(VehicleListFilter.RENTED, after, limit, request);
     }
 
     @GetMapping("/deleted")
     @PreAuthorize("hasAuthority('admin')")
     @Operation(summary = "Pobierz usunięte pojazdy",
-            description = "Zwraca listę wszystkich usuniętych pojazdów")
+            description = "Zwraca stronę usuniętych pojazdów, stronicowaną po ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista usuniętych pojazdów pobrana pomyślnie"),
+            @ApiResponse(responseCode = "304", description = "Lista nie zmieniła się od podanego ETag"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy rozmiar strony"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<?> getDeletedVehicles(
+            @Parameter(description = "ID ostatniego pojazdu z poprzedniej strony (nextCursor)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Rozmiar strony (1-500)")
+            @RequestParam(defaultValue = "100") int limit,
+            WebRequest request) {
+        return page(VehicleListFilter.DELETED, after, limit, request);
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = "Import floty z CSV lub NDJSON",
+            description = "Czyta plik strumieniowo i zapisuje pojazdy paczkami. CSV wymaga nagłówka " +
+                    "(type,brand,model,year,price,plate,licenceCategory,attributes; attributes jako klucz=wartość;klucz=wartość), " +
+                    "NDJSON to jeden obiekt pojazdu na linię. Błędne wiersze są pomijane i raportowane; " +
+                    "postęp trwającego importu: GET /api/vehicles/import/{importId}")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import zakończony - raport z liczbą zapisanych wierszy i błędami"),
+            @ApiResponse(responseCode = "400", description = "Import o tym id już trwa"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<?> importVehicles(
+            @Parameter(description = "Id importu do śledzenia postępu (domyślnie losowe)")
+            @RequestParam(required = false) String importId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        VehicleImportService.Format format = contentType.startsWith("text/csv")
+                ? VehicleImportService.Format.CSV : VehicleImportService.Format.NDJSON;
+        try {
+            return ResponseEntity.ok(vehicleImportService.importVehicles(importId, format, body));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body("Błąd: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/import/{importId}")
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = "Postęp importu floty", description = "Liczniki wierszy i błędy trwającego lub zakończonego importu")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Raport pobrany pomyślnie"),
+            @ApiResponse(responseCode = "404", description = "Nie znaleziono importu"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<VehicleImportReport> getImportReport(@PathVariable String importId) {
+        VehicleImportReport report = vehicleImportService.getReport(importId);
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/import")
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = "Ostatnie importy floty", description = "Raporty ostatnich importów, również trwających")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Raporty pobrane pomyślnie"),
             @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
             @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
     })
-    public ResponseEntity<List<Vehicle>> getDeletedVehicles() {
-        return ResponseEntity.ok(vehicleService.getDeleted());
+    public ResponseEntity<List<VehicleImportReport>> getImportReports() {
+        return ResponseEntity.ok(vehicleImportService.getReports());
     }
 
     @PostMapping("/create")
@@ -202,4 +505,17 @@ public class VehicleController {
         vehicleService.deleteById(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // wersja odczytana przed zapytaniem - przy rownoleglym zapisie klient dostanie najwyzej starszy ETag niz dane
+    private ResponseEntity<?> page(VehicleListFilter filter, Long after, int limit, WebRequest request) {
+        String etag = catalogVersionTracker.vehicleEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        try {
+            return ResponseEntity.ok().eTag(etag).body(vehicleService.getPage(filter, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Błąd: " + e.getMessage());
+        }
+    }
+}
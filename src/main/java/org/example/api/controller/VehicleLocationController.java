@@ -1,5 +1,11 @@
 package org.example.api.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -8,20 +14,49 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.dto.IngestBufferStats;
+import org.example.dto.LocationHistoryPoint;
+import org.example.dto.LocationUpdateRequest;
+import org.example.dto.LocationUpdateStatus;
+import org.example.dto.NearbyVehicle;
+import org.example.dto.NearbyZone;
+import org.example.dto.SimulationRunStats;
+import org.example.dto.ZoneOccupancy;
+import org.example.geo.PointGrid;
 import org.example.model.AllowedLocation;
 import org.example.model.Rental;
 import org.example.model.User;
 import org.example.model.Vehicle;
+import org.example.model.ZoneShape;
+import org.example.service.AllowedLocationIndex;
 import org.example.service.AllowedLocationService;
+import org.example.service.CatalogVersionTracker;
+import org.example.service.LocationEventBroadcaster;
+import org.example.service.LocationHistoryService;
+import org.example.service.LocationIngestBuffer;
+import org.example.service.LocationSimulationJob;
 import org.example.service.RentalService;
 import org.example.service.UserService;
 import org.example.service.VehicleLocationService;
+import org.example.service.VehiclePositionIndex;
+import org.example.service.ZoneOccupancyTracker;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,15 +71,46 @@ public class VehicleLocationController {
     private final AllowedLocationService allowedLocationService;
     private final RentalService rentalService;
     private final UserService userService;
+    private final LocationIngestBuffer locationIngestBuffer;
+    private final LocationHistoryService locationHistoryService;
+    private final LocationEventBroadcaster locationEventBroadcaster;
+    private final VehiclePositionIndex vehiclePositionIndex;
+    private final AllowedLocationIndex allowedLocationIndex;
+    private final ZoneOccupancyTracker zoneOccupancyTracker;
+    private final LocationSimulationJob locationSimulationJob;
+    private final CatalogVersionTracker catalogVersionTracker;
+    private final ObjectReader locationUpdateReader;
+    private final ObjectWriter historyPointWriter;
 
     public VehicleLocationController(VehicleLocationService vehicleLocationService,
                                      AllowedLocationService allowedLocationService,
                                      RentalService rentalService,
-                                     UserService userService) {
+                                     UserService userService,
+                                     LocationIngestBuffer locationIngestBuffer,
+                                     LocationHistoryService locationHistoryService,
+                                     LocationEventBroadcaster locationEventBroadcaster,
+                                     VehiclePositionIndex vehiclePositionIndex,
+                                     AllowedLocationIndex allowedLocationIndex,
+                                     ZoneOccupancyTracker zoneOccupancyTracker,
+                                     LocationSimulationJob locationSimulationJob,
+                                     CatalogVersionTracker catalogVersionTracker,
+                                     ObjectMapper objectMapper) {
         this.vehicleLocationService = vehicleLocationService;
         this.allowedLocationService = allowedLocationService;
         this.rentalService = rentalService;
         this.userService = userService;
+        this.locationIngestBuffer = locationIngestBuffer;
+        this.locationHistoryService = locationHistoryService;
+        this.locationEventBroadcaster = locationEventBroadcaster;
+        this.vehiclePositionIndex = vehiclePositionIndex;
+        this.allowedLocationIndex = allowedLocationIndex;
+        this.zoneOccupancyTracker = zoneOccupancyTracker;
+        this.locationSimulationJob = locationSimulationJob;
+        this.catalogVersionTracker = catalogVersionTracker;
+        this.locationUpdateReader = objectMapper.readerFor(LocationUpdateRequest.class);
+        this.historyPointWriter = objectMapper.writerFor(LocationHistoryPoint.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @GetMapping("/allowed")
@@ -54,28 +120,58 @@ public class VehicleLocationController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista dozwolonych lokalizacji pobrana pomyślnie",
                     content = @Content(schema = @Schema(implementation = AllowedLocation.class))),
+            @ApiResponse(responseCode = "304", description = "Lista nie zmieniła się od podanego ETag"),
             @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
             @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
     })
-    public ResponseEntity<List<AllowedLocation>> getAllowedLocations() {
-        return ResponseEntity.ok(allowedLocationService.findAllActive());
+    public ResponseEntity<List<AllowedLocation>> getAllowedLocations(
+            @Parameter(description = "Filtr kształtu strefy: CIRCLE albo POLYGON")
+            @RequestParam(required = false) ZoneShape shape,
+            WebRequest request) {
+        String etag = catalogVersionTracker.zoneEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        if (shape != null) {
+            return ResponseEntity.ok().eTag(etag).body(allowedLocationService.findAllActiveByShape(shape));
+        }
+        return ResponseEntity.ok().eTag(etag).body(allowedLocationService.findAllActive());
+    }
+
+    @GetMapping("/occupancy")
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = "Obłożenie dozwolonych lokalizacji",
+            description = "Zwraca bieżącą liczbę pojazdów w każdej aktywnej strefie (liczniki w pamięci, bez odczytu tabeli pojazdów)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Liczniki pobrane pomyślnie"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<List<ZoneOccupancy>> getZoneOccupancy(
+            @Parameter(description = "Tylko biura główne")
+            @RequestParam(defaultValue = "false") boolean mainOfficeOnly) {
+        return ResponseEntity.ok(zoneOccupancyTracker.getOccupancy(mainOfficeOnly));
     }
 
     @PostMapping("/allowed/create")
     @PreAuthorize("hasAuthority('admin')")
     @Operation(summary = "Utwórz dozwoloną lokalizację",
-            description = "Tworzy nową dozwoloną lokalizację dla pojazdów")
+            description = "Tworzy nową dozwoloną lokalizację dla pojazdów - koło (latitude, longitude, radiusMeters) albo wielokąt (shape = POLYGON, vertices)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lokalizacja utworzona pomyślnie"),
             @ApiResponse(responseCode = "400", description = "Nieprawidłowe dane lokalizacji"),
             @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
             @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
     })
-    public ResponseEntity<AllowedLocation> createAllowedLocation(
+    public ResponseEntity<?> createAllowedLocation(
             @Parameter(description = "Dane nowej dozwolonej lokalizacji", required = true)
             @RequestBody AllowedLocation allowedLocation) {
-        AllowedLocation savedLocation = allowedLocationService.save(allowedLocation);
-        return ResponseEntity.ok(savedLocation);
+        try {
+            AllowedLocation savedLocation = allowedLocationService.save(allowedLocation);
+            return ResponseEntity.ok(savedLocation);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Błąd: " + e.getMessage());
+        }
     }
 
     @DeleteMapping("/allowed/delete/{id}")
@@ -129,6 +225,156 @@ public class VehicleLocationController {
         }
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = "Zbiorcza aktualizacja lokalizacji pojazdów",
+            description = "Przyjmuje tablicę pozycji (vehicleId, latitude, longitude, timestamp) i zwraca status dla każdej pozycji")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Paczka przetworzona"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowe dane paczki"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<?> setVehicleLocationsBatch(
+            @Parameter(description = "Lista pozycji pojazdów", required = true)
+            @RequestBody List<LocationUpdateRequest> updates) {
+        List<LocationUpdateStatus> results = new ArrayList<>(updates.size());
+        for (int from = 0; from < updates.size(); from += VehicleLocationService.MAX_BATCH_SIZE) {
+            int to = Math.min(from + VehicleLocationService.MAX_BATCH_SIZE, updates.size());
+            results.addAll(vehicleLocationService.applyLocationUpdates(updates.subList(from, to)));
+        }
+        return ResponseEntity.ok(batchResponse(results));
+    }
+
+    @PostMapping(value = "/batch", consumes = "application/x-ndjson")
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = "Zbiorcza aktualizacja lokalizacji pojazdów (NDJSON)",
+            description = "Przyjmuje strumień NDJSON z pozycjami pojazdów, przetwarzany paczkami w miarę odczytu")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Strumień przetworzony"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy format strumienia"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<?> setVehicleLocationsStream(InputStream body) {
+        List<LocationUpdateStatus> results = new ArrayList<>();
+        List<LocationUpdateRequest> chunk = new ArrayList<>(VehicleLocationService.MAX_BATCH_SIZE);
+        try (MappingIterator<LocationUpdateRequest> iterator = locationUpdateReader.readValues(body)) {
+            while (iterator.hasNextValue()) {
+                chunk.add(iterator.nextValue());
+                if (chunk.size() == VehicleLocationService.MAX_BATCH_SIZE) {
+                    results.addAll(vehicleLocationService.applyLocationUpdates(chunk));
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Błąd: nieprawidłowy format NDJSON po " + (results.size() + chunk.size()) + " pozycjach: " + e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(vehicleLocationService.applyLocationUpdates(chunk));
+        }
+        return ResponseEntity.ok(batchResponse(results));
+    }
+
+    @PostMapping("/ingest")
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = "Przyjmij pozycje pojazdów do bufora",
+            description = "Pozycje są łączone per pojazd (zostaje najnowsza) i zapisywane asynchronicznie paczkami")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Pozycje przyjęte do bufora"),
+            @ApiResponse(responseCode = "429", description = "Bufor pełny - część pozycji odrzucona"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<?> ingestVehicleLocations(
+            @Parameter(description = "Lista pozycji pojazdów", required = true)
+            @RequestBody List<LocationUpdateRequest> updates) {
+        int accepted = 0;
+        for (LocationUpdateRequest update : updates) {
+            if (locationIngestBuffer.offer(update)) {
+                accepted++;
+            }
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("accepted", accepted);
+        response.put("rejected", updates.size() - accepted);
+
+        if (accepted < updates.size()) {
+            return ResponseEntity.status(429).header("Retry-After", "1").body(response);
+        }
+        return ResponseEntity.accepted().body(response);
+    }
+
+    @GetMapping("/ingest/stats")
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = "Statystyki bufora pozycji",
+            description = "Zwraca głębokość kolejki, współczynnik łączenia i czasy zapisu paczek")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statystyki pobrane pomyślnie"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<IngestBufferStats> getIngestStats() {
+        return ResponseEntity.ok(locationIngestBuffer.getStats());
+    }
+
+    @GetMapping("/simulation/stats")
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = "Statystyki symulacji ruchu pojazdów",
+            description = "Zwraca czasy ostatnich przebiegów symulacji, liczbę pojazdów i pominięte przebiegi")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statystyki pobrane pomyślnie"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<SimulationRunStats> getSimulationStats() {
+        return ResponseEntity.ok(locationSimulationJob.getStats());
+    }
+
+    @GetMapping(value = "/history/{vehicleId}", produces = "application/x-ndjson")
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = "Historia pozycji pojazdu",
+            description = "Strumieniuje (NDJSON) pozycje pojazdu z podanego przedziału czasu, domyślnie z ostatnich 24 godzin")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Historia pozycji"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy zakres czasu"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<?> getLocationHistory(
+            @Parameter(description = "ID pojazdu", required = true)
+            @PathVariable Long vehicleId,
+            @Parameter(description = "Początek przedziału (ISO)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Koniec przedziału (ISO)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body("Błąd: początek zakresu musi być przed jego końcem!");
+        }
+
+        StreamingResponseBody body = out -> locationHistoryService.forEachInRange(vehicleId, start, end, entry -> {
+            try {
+                historyPointWriter.writeValue(out, LocationHistoryPoint.of(entry));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    private Map<String, Object> batchResponse(List<LocationUpdateStatus> results) {
+        long accepted = results.stream().filter(r -> LocationUpdateStatus.OK.equals(r.getStatus())).count();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("processed", results.size());
+        response.put("accepted", accepted);
+        response.put("results", results);
+        return response;
+    }
+
     @PostMapping("/set-random-location/{vehicleId}")
     @PreAuthorize("hasAnyAuthority('admin', 'user')")
     @Operation(summary = "Ustaw losową lokalizację pojazdu",
@@ -224,18 +470,108 @@ public class VehicleLocationController {
         }
     }
 
+    @GetMapping("/nearest-vehicles")
+    @PreAuthorize("hasAnyAuthority('admin', 'user')")
+    @Operation(summary = "Najbliższe dostępne pojazdy",
+            description = "Zwraca k dostępnych pojazdów najbliższych podanemu punktowi")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista najbliższych pojazdów"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowe parametry"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<?> getNearestVehicles(
+            @Parameter(description = "Szerokość geograficzna", required = true)
+            @RequestParam double latitude,
+            @Parameter(description = "Długość geograficzna", required = true)
+            @RequestParam double longitude,
+            @Parameter(description = "Liczba pojazdów (1-100)")
+            @RequestParam(defaultValue = "5") int k) {
+        if (k < 1 || k > 100) {
+            return ResponseEntity.badRequest().body("Błąd: k musi być w przedziale 1-100!");
+        }
+        List<NearbyVehicle> vehicles = vehiclePositionIndex.findNearestAvailable(latitude, longitude, k);
+        return ResponseEntity.ok(vehicles);
+    }
+
+    @GetMapping("/nearest-zone/{vehicleId}")
+    @PreAuthorize("hasAnyAuthority('admin', 'user')")
+    @Operation(summary = "Najbliższe dozwolone lokalizacje dla pojazdu",
+            description = "Zwraca k dozwolonych lokalizacji najbliższych aktualnej pozycji wypożyczonego pojazdu")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista najbliższych lokalizacji"),
+            @ApiResponse(responseCode = "400", description = "Pojazd nie ma znanej pozycji"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień lub aktywnego wypożyczenia"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<?> getNearestZones(
+            @Parameter(description = "ID pojazdu", required = true)
+            @PathVariable Long vehicleId,
+            @Parameter(description = "Liczba lokalizacji (1-20)")
+            @RequestParam(defaultValue = "1") int k,
+            Principal principal) {
+        if (k < 1 || k > 20) {
+            return ResponseEntity.badRequest().body("Błąd: k musi być w przedziale 1-20!");
+        }
+        User user = userService.findByLogin(principal.getName());
+
+        Optional<Rental> optionalRental = rentalService.findActiveRentalByVehicleId(vehicleId);
+
+        if (optionalRental.isEmpty()) {
+            return ResponseEntity.status(403).body("Brak aktywnego wypożyczenia dla tego pojazdu!");
+        }
+
+        if (!user.getId().equals(optionalRental.get().getUserId()) && !principal.getName().equals("admin")) {
+            return ResponseEntity.status(403).body("Nie masz uprawnień do sprawdzenia lokalizacji tego pojazdu!");
+        }
+
+        PointGrid.Point position = vehiclePositionIndex.getPosition(vehicleId);
+        if (position == null) {
+            return ResponseEntity.badRequest().body("Błąd: pojazd nie ma znanej pozycji!");
+        }
+        List<NearbyZone> zones = allowedLocationIndex.findNearest(position.getLatitude(), position.getLongitude(), k);
+        return ResponseEntity.ok(zones);
+    }
+
     @GetMapping("/not-allowed")
     @PreAuthorize("hasAuthority('admin')")
     @Operation(summary = "Pobierz pojazdy w niedozwolonych lokalizacjach",
             description = "Zwraca listę pojazdów znajdujących się w niedozwolonych lokalizacjach")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista pojazdów pobrana pomyślnie"),
+            @ApiResponse(responseCode = "304", description = "Lista nie zmieniła się od podanego ETag"),
             @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
             @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
     })
-    public ResponseEntity<List<Vehicle>> getVehiclesAtNotAllowedLocation() {
+    public ResponseEntity<List<Vehicle>> getVehiclesAtNotAllowedLocation(WebRequest request) {
+        String etag = catalogVersionTracker.vehicleEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         List<Vehicle> vehicles = vehicleLocationService.getVehiclesNotAtAllowedLocation();
-        return ResponseEntity.ok(vehicles);
+        return ResponseEntity.ok().eTag(etag).body(vehicles);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAuthority('admin')")
+    @Operation(summary = "Strumień zdarzeń wjazdu/wyjazdu ze stref",
+            description = "Server-sent events (ENTER/EXIT) przy każdej zmianie statusu dozwolonej lokalizacji pojazdu; opcjonalnie filtrowane po pojazdach i typie")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Subskrypcja otwarta"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy filtr"),
+            @ApiResponse(responseCode = "403", description = "Brak uprawnień dostępu"),
+            @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
+    })
+    public ResponseEntity<SseEmitter> subscribeLocationEvents(
+            @Parameter(description = "ID pojazdów (puste = wszystkie)")
+            @RequestParam(required = false) List<Long> vehicleIds,
+            @Parameter(description = "Typ zdarzenia: ENTER albo EXIT (puste = oba)")
+            @RequestParam(required = false) String type) {
+        try {
+            return ResponseEntity.ok(locationEventBroadcaster.subscribe(vehicleIds, type));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PostMapping("/update-all-status")
@@ -248,8 +584,8 @@ public class VehicleLocationController {
             @ApiResponse(responseCode = "401", description = "Nieautoryzowany dostęp")
     })
     public ResponseEntity<?> updateAllVehicleLocationStatus() {
-        vehicleLocationService.updateAllVehicleLocationStatus();
-        return ResponseEntity.ok(Map.of("message", "Status lokalizacji zostal zaktualizowany"));
+        int changed = vehicleLocationService.updateAllVehicleLocationStatus();
+        return ResponseEntity.ok(Map.of("message", "Status lokalizacji zostal zaktualizowany", "changed", changed));
     }
 
     @PostMapping("/set-location/{vehicleId}")
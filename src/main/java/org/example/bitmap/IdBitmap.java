@@ -0,0 +1,172 @@
+package org.example.bitmap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Bitmapa id podzielona jak w Roaring na kontenery po 65536 id (starsze bity id = numer kontenera).
+ * Id pojazdow pochodza z sekwencji i sa geste, wiec kontener to zawsze tablica 1024 slow;
+ * puste kontenery nie sa alokowane. Niezsynchronizowana - synchronizacje zapewnia wlasciciel.
+ */
+public final class IdBitmap {
+    private static final int CONTAINER_BITS = 16;
+    private static final int WORDS_PER_CONTAINER = 1 << (CONTAINER_BITS - 6);
+
+    private long[][] containers = new long[0][];
+    private long cardinality;
+
+    public boolean set(long id) {
+        int container = container(id);
+        if (container >= containers.length) {
+            containers = Arrays.copyOf(containers, container + 1);
+        }
+        long[] words = containers[container];
+        if (words == null) {
+            words = containers[container] = new long[WORDS_PER_CONTAINER];
+        }
+        int word = word(id);
+        long mask = 1L << id;
+        if ((words[word] & mask) != 0) {
+            return false;
+        }
+        words[word] |= mask;
+        cardinality++;
+        return true;
+    }
+
+    public boolean clear(long id) {
+        int container = container(id);
+        if (container >= containers.length || containers[container] == null) {
+            return false;
+        }
+        long[] words = containers[container];
+        int word = word(id);
+        long mask = 1L << id;
+        if ((words[word] & mask) == 0) {
+            return false;
+        }
+        words[word] &= ~mask;
+        cardinality--;
+        return true;
+    }
+
+    public void set(long id, boolean value) {
+        if (value) {
+            set(id);
+        } else {
+            clear(id);
+        }
+    }
+
+    public boolean contains(long id) {
+        int container = container(id);
+        return container < containers.length && containers[container] != null
+                && (containers[container][word(id)] & (1L << id)) != 0;
+    }
+
+    public long cardinality() {
+        return cardinality;
+    }
+
+    public void clearAll() {
+        containers = new long[0][];
+        cardinality = 0;
+    }
+
+    // liczba id spelniajacych wszystkie warunki - jeden przebieg po slowach, bez bitmap posrednich
+    public static long count(IdBitmap base, List<Term> terms) {
+        long count = 0;
+        for (int container = 0; container < base.containers.length; container++) {
+            long[] words = base.containers[container];
+            if (words == null) {
+                continue;
+            }
+            for (int i = 0; i < WORDS_PER_CONTAINER; i++) {
+                long word = combine(words[i], container, i, terms);
+                if (word != 0) {
+                    count += Long.bitCount(word);
+                }
+            }
+        }
+        return count;
+    }
+
+    // id spelniajace warunki, rosnaco, wieksze niz after; konczy po limit id
+    public static int forEach(IdBitmap base, List<Term> terms, long after, int limit, LongConsumer consumer) {
+        int[] emitted = new int[1];
+        forEachWhile(base, terms, after, id -> {
+            consumer.accept(id);
+            return ++emitted[0] < limit;
+        });
+        return emitted[0];
+    }
+
+    // jak forEach, ale konczy gdy consumer zwroci false - dla filtrow, ktorych nie da sie wyrazic bitmapa
+    public static void forEachWhile(IdBitmap base, List<Term> terms, long after, LongPredicate consumer) {
+        long start = after + 1;
+        for (int container = Math.max(0, container(start)); container < base.containers.length; container++) {
+            long[] words = base.containers[container];
+            if (words == null) {
+                continue;
+            }
+            int first = container == container(start) ? word(start) : 0;
+            for (int i = first; i < WORDS_PER_CONTAINER; i++) {
+                long word = combine(words[i], container, i, terms);
+                if (container == container(start) && i == first) {
+                    word &= -1L << start;
+                }
+                while (word != 0) {
+                    long id = ((long) container << CONTAINER_BITS) | ((long) i << 6) | Long.numberOfTrailingZeros(word);
+                    if (!consumer.test(id)) {
+                        return;
+                    }
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    private static long combine(long word, int container, int index, List<Term> terms) {
+        for (int t = 0; t < terms.size() && word != 0; t++) {
+            Term term = terms.get(t);
+            long other = term.bitmap.word(container, index);
+            word &= term.negated ? ~other : other;
+        }
+        return word;
+    }
+
+    private long word(int container, int index) {
+        if (container >= containers.length || containers[container] == null) {
+            return 0;
+        }
+        return containers[container][index];
+    }
+
+    private static int container(long id) {
+        return (int) (id >>> CONTAINER_BITS);
+    }
+
+    private static int word(long id) {
+        return (int) (id >>> 6) & (WORDS_PER_CONTAINER - 1);
+    }
+
+    public static final class Term {
+        private final IdBitmap bitmap;
+        private final boolean negated;
+
+        private Term(IdBitmap bitmap, boolean negated) {
+            this.bitmap = bitmap;
+            this.negated = negated;
+        }
+
+        public static Term of(IdBitmap bitmap) {
+            return new Term(bitmap, false);
+        }
+
+        public static Term not(IdBitmap bitmap) {
+            return new Term(bitmap, true);
+        }
+    }
+}
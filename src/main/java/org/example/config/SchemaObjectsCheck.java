@@ -0,0 +1,57 @@
+package org.example.config;
+
+import org.example.repository.SchemaObjectRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sprawdza po starcie, czy db/indexes.sql zalozyl obiekty, od ktorych zalezy poprawnosc (nie tylko wydajnosc).
+ * Skrypt idzie z continue-on-error, wiec nieudana instrukcja konczy sie tylko wpisem w logu - tu start sie przerywa.
+ */
+@Component
+public class SchemaObjectsCheck implements ApplicationRunner {
+    private final SchemaObjectRepository schemaObjectRepository;
+
+    public SchemaObjectsCheck(SchemaObjectRepository schemaObjectRepository) {
+        this.schemaObjectRepository = schemaObjectRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> missing = new ArrayList<>();
+        // updated_at z zegara bazy - odcisk floty i ETag katalogu (CatalogVersionTracker)
+        requireTrigger(missing, "vehicle", "trg_vehicle_updated_at");
+        // location_received_at z zegara bazy - przyrostowy przebieg statusu lokalizacji
+        requireTrigger(missing, "vehicle", "trg_vehicle_location_received_at");
+        requireTrigger(missing, "reservation", "trg_reservation_updated_at");
+        // najwyzej jedno aktywne wypozyczenie pojazdu - ostatnia zapora przy wyscigu rent/rent
+        requireIndex(missing, "uq_rental_active_vehicle");
+        // nakladajace sie rezerwacje tego samego pojazdu odrzuca baza
+        requireConstraint(missing, "ex_reservation_vehicle_period");
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Brak obiektow bazy z db/indexes.sql: " + String.join(", ", missing));
+        }
+    }
+
+    private void requireTrigger(List<String> missing, String table, String name) {
+        if (!schemaObjectRepository.triggerExists(table, name)) {
+            missing.add("trigger " + name + " na " + table);
+        }
+    }
+
+    private void requireIndex(List<String> missing, String name) {
+        if (!schemaObjectRepository.indexExists(name)) {
+            missing.add("indeks " + name);
+        }
+    }
+
+    private void requireConstraint(List<String> missing, String name) {
+        if (!schemaObjectRepository.constraintExists(name)) {
+            missing.add("ograniczenie " + name);
+        }
+    }
+}
@@ -59,6 +59,10 @@ public class SecurityConfig {
                         .requestMatchers("/api/rentals/rent/**").hasAuthority("user")
                         .requestMatchers("/api/rentals/return/**").hasAuthority("user")
 
+                        // rezerwacje
+                        .requestMatchers("/api/reservations/vehicle/**").hasAuthority("admin")
+                        .requestMatchers("/api/reservations", "/api/reservations/**").hasAnyAuthority("admin", "user")
+
                         // platnosc
                         .requestMatchers("/api/payments/create-payment-intent").authenticated()
                         .requestMatchers("/api/payments/create-checkout-session").authenticated()
@@ -69,9 +73,11 @@ public class SecurityConfig {
                         .requestMatchers("/api/locations/set-random-location/**").hasAnyAuthority("admin", "user")
                         .requestMatchers("/api/locations/status/**").hasAnyAuthority("admin", "user")
                         .requestMatchers("/api/locations/set-location/**").hasAnyAuthority("admin", "user")
+                        .requestMatchers("/api/locations/nearest-vehicles", "/api/locations/nearest-zone/**").hasAnyAuthority("admin", "user")
 
                         // admin
                         .requestMatchers("/api/vehicles/create", "/api/vehicles/delete/**").hasAuthority("admin")
+                        .requestMatchers("/api/vehicles/search", "/api/vehicles/autocomplete", "/api/vehicles/facets").hasAnyAuthority("admin", "user")
                         .requestMatchers("/api/vehicles", "/api/vehicles/**", "/api/vehicles/active", "/api/vehicles/deleted").hasAuthority("admin")
                         .requestMatchers("/api/rentals", "/api/rentals/history", "/api/rentals/history/vehicle/**").hasAuthority("admin")
                         .requestMatchers("/api/rentals/history/user/**").hasAnyAuthority("admin", "user")
@@ -81,6 +87,12 @@ public class SecurityConfig {
                         .requestMatchers("/api/locations/not-allowed").hasAuthority("admin")
                         .requestMatchers("/api/locations/update-all-status").hasAuthority("admin")
                         .requestMatchers("/api/locations/set-location-by-coords/**").hasAuthority("admin")
+                        .requestMatchers("/api/locations/batch").hasAuthority("admin")
+                        .requestMatchers("/api/locations/ingest", "/api/locations/ingest/**").hasAuthority("admin")
+                        .requestMatchers("/api/locations/history/**").hasAuthority("admin")
+                        .requestMatchers("/api/locations/events").hasAuthority("admin")
+                        .requestMatchers("/api/locations/occupancy").hasAuthority("admin")
+                        .requestMatchers("/api/locations/simulation/**").hasAuthority("admin")
 
                         .anyRequest().authenticated())
                 .exceptionHandling(ex -> ex.authenticationEntryPoint(jwtAuthenticationEntryPoint))
@@ -0,0 +1,18 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+    private boolean loaded;
+    private int size;
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private long loads;
+    private long patches;
+}
@@ -0,0 +1,24 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestBufferStats {
+    private int queueDepth;
+    private long received;
+    private long coalesced;
+    private long rejected;
+    private double coalesceRatio;
+    private long flushes;
+    private long flushedUpdates;
+    private long failedFlushes;
+    private long requeuedUpdates;
+    private long droppedUpdates;
+    private long lastFlushMillis;
+    private long maxFlushMillis;
+    private double avgFlushMillis;
+}
@@ -0,0 +1,22 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.LocationHistoryEntry;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationHistoryPoint {
+    private LocalDateTime recordedAt;
+    private double latitude;
+    private double longitude;
+    private boolean atAllowedLocation;
+
+    public static LocationHistoryPoint of(LocationHistoryEntry entry) {
+        return new LocationHistoryPoint(entry.getRecordedAt(), entry.latitude(), entry.longitude(), entry.isAtAllowedLocation());
+    }
+}
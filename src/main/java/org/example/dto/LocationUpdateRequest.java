@@ -0,0 +1,19 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationUpdateRequest {
+    private Long vehicleId;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+    private LocalDateTime timestamp;
+    private String locationName;
+}
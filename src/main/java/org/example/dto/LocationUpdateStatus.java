@@ -0,0 +1,23 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationUpdateStatus {
+    public static final String OK = "OK";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String STALE = "STALE";
+    public static final String INVALID = "INVALID";
+
+    private Long vehicleId;
+    private String status;
+    private Boolean isAtAllowedLocation;
+
+    public static LocationUpdateStatus of(Long vehicleId, String status) {
+        return new LocationUpdateStatus(vehicleId, status, null);
+    }
+}
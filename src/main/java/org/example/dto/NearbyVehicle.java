@@ -0,0 +1,15 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyVehicle {
+    private Long vehicleId;
+    private double latitude;
+    private double longitude;
+    private double distanceMeters;
+}
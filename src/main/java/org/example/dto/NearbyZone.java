@@ -0,0 +1,15 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyZone {
+    private Long locationId;
+    private String name;
+    private boolean mainOffice;
+    private double distanceMeters;
+}
@@ -0,0 +1,18 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// strona wynikow stronicowanych kursorem - nastepna strona to ?after=nextCursor
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResponse<T> {
+    private List<T> items;
+    private int limit;
+    private boolean hasMore;
+    private Long nextCursor;
+}
@@ -0,0 +1,10 @@
+package org.example.dto;
+
+import org.example.model.PaymentStatus;
+
+import java.math.BigDecimal;
+
+// widok wypozyczenia na listach - bez danych sesji platnosci
+public record RentalSummary(Long id, Long vehicleId, Long userId, String rentDate, String returnDate, boolean returned,
+                            BigDecimal totalCost, PaymentStatus paymentStatus, Integer rentalDays) {
+}
@@ -0,0 +1,14 @@
+package org.example.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class ReservationRequest {
+    private Long vehicleId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
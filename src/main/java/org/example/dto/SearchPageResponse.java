@@ -0,0 +1,18 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// strona wynikow wyszukiwania - kursor (wartosc sortowania, id) jest nieprzezroczystym napisem, nastepna strona to ?after=nextCursor
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchPageResponse<T> {
+    private List<T> items;
+    private int limit;
+    private boolean hasMore;
+    private String nextCursor;
+}
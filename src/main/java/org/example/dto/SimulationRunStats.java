@@ -0,0 +1,23 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationRunStats {
+    private boolean running;
+    private long runs;
+    private long skippedRuns;
+    private LocalDateTime lastRunStartedAt;
+    private int lastRunVehicles;
+    private int lastRunFailedVehicles;
+    private long lastRunMillis;
+    private long maxRunMillis;
+    private double avgRunMillis;
+    private int threads;
+}
@@ -0,0 +1,8 @@
+package org.example.dto;
+
+import java.util.Set;
+
+// widok uzytkownika na listach - bez hasla
+public record UserSummary(Long id, String login, String address, String postalCode, String country,
+                          boolean deleted, Set<String> roles) {
+}
@@ -0,0 +1,8 @@
+package org.example.dto;
+
+import java.util.Map;
+
+// liczby dostepnych pojazdow w podziale na marke, typ, przedzial rocznika i przedzial ceny
+public record VehicleFacets(long total, Map<String, Long> brand, Map<String, Long> type,
+                            Map<String, Long> yearBucket, Map<String, Long> priceBucket) {
+}
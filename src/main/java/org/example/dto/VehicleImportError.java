@@ -0,0 +1,4 @@
+package org.example.dto;
+
+public record VehicleImportError(long line, String plate, String message) {
+}
@@ -0,0 +1,25 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleImportReport {
+    private String importId;
+    private String format;
+    private String status;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long processedRows;
+    private long importedRows;
+    private long failedRows;
+    private List<VehicleImportError> errors;
+    // bledow wiecej niz zwracana lista
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,20 @@
+package org.example.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+// wiersz importu floty (linia NDJSON lub rekord CSV)
+@Data
+@NoArgsConstructor
+public class VehicleImportRow {
+    private String type;
+    private String brand;
+    private String model;
+    private Integer year;
+    private Integer price;
+    private String plate;
+    private String licenceCategory;
+    private Map<String, String> attributes;
+}
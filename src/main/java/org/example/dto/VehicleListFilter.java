@@ -0,0 +1,9 @@
+package org.example.dto;
+
+public enum VehicleListFilter {
+    ALL,
+    ACTIVE,
+    AVAILABLE,
+    RENTED,
+    DELETED
+}
@@ -0,0 +1,28 @@
+package org.example.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// puste pole = brak filtra; atrybuty musza sie zgadzac wszystkie (jsonb @>)
+@Data
+@NoArgsConstructor
+public class VehicleSearchCriteria {
+    private VehicleListFilter status = VehicleListFilter.AVAILABLE;
+    private String type;
+    private String brand;
+    private String model;
+    private Integer yearFrom;
+    private Integer yearTo;
+    private Integer priceFrom;
+    private Integer priceTo;
+    private String licenceCategory;
+    private Map<String, String> attributes = new LinkedHashMap<>();
+    private VehicleSortField sort = VehicleSortField.ID;
+    private boolean descending;
+    // pozycja za ostatnim elementem poprzedniej strony (wartosc sortowania + id)
+    private Integer afterValue;
+    private Long afterId;
+}
@@ -0,0 +1,17 @@
+package org.example.dto;
+
+public enum VehicleSortField {
+    ID("id"),
+    PRICE("price"),
+    YEAR("year");
+
+    private final String column;
+
+    VehicleSortField(String column) {
+        this.column = column;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+}
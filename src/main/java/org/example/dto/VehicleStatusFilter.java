@@ -0,0 +1,9 @@
+package org.example.dto;
+
+// null = dowolna wartosc
+public record VehicleStatusFilter(Boolean rented, Boolean deleted, Boolean atAllowedLocation, String type) {
+
+    public static VehicleStatusFilter available() {
+        return new VehicleStatusFilter(false, false, null, null);
+    }
+}
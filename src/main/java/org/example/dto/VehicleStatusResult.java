@@ -0,0 +1,6 @@
+package org.example.dto;
+
+import java.util.List;
+
+public record VehicleStatusResult(long count, List<Long> ids, boolean hasMore, String nextCursor) {
+}
@@ -0,0 +1,4 @@
+package org.example.dto;
+
+public record VehicleSuggestion(Long id, String brand, String model, String plate, boolean rented) {
+}
@@ -0,0 +1,16 @@
+package org.example.dto;
+
+import org.example.model.Vehicle;
+import org.hibernate.Hibernate;
+
+// widok pojazdu na listach - bez atrybutow jsonb i danych lokalizacji
+public record VehicleSummary(Long id, String type, String brand, String model, int year, int price,
+                             String plate, boolean rented, boolean deleted) {
+
+    // type jest kolumna dyskryminatora - w swiezo utrwalonej encji jeszcze pusty
+    public static VehicleSummary of(Vehicle vehicle) {
+        String type = vehicle.getType() != null ? vehicle.getType() : Hibernate.getClass(vehicle).getSimpleName();
+        return new VehicleSummary(vehicle.getId(), type, vehicle.getBrand(), vehicle.getModel(),
+                vehicle.getYear(), vehicle.getPrice(), vehicle.getPlate(), vehicle.isRented(), vehicle.isDeleted());
+    }
+}
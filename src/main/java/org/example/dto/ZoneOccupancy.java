@@ -0,0 +1,15 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ZoneOccupancy {
+    private Long locationId;
+    private String name;
+    private boolean mainOffice;
+    private int vehicles;
+}
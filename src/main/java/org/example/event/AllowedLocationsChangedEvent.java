@@ -0,0 +1,13 @@
+package org.example.event;
+
+public class AllowedLocationsChangedEvent {
+    private final Long locationId;
+
+    public AllowedLocationsChangedEvent(Long locationId) {
+        this.locationId = locationId;
+    }
+
+    public Long getLocationId() {
+        return locationId;
+    }
+}
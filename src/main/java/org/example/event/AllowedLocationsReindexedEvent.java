@@ -0,0 +1,13 @@
+package org.example.event;
+
+public class AllowedLocationsReindexedEvent {
+    private final long version;
+
+    public AllowedLocationsReindexedEvent(long version) {
+        this.version = version;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
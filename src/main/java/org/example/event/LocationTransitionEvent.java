@@ -0,0 +1,43 @@
+package org.example.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class LocationTransitionEvent {
+    public static final String ENTER = "ENTER";
+    public static final String EXIT = "EXIT";
+
+    private final Long vehicleId;
+    private final String type;
+    private final BigDecimal latitude;
+    private final BigDecimal longitude;
+    private final LocalDateTime timestamp;
+
+    public LocationTransitionEvent(Long vehicleId, boolean isAtAllowedLocation, BigDecimal latitude, BigDecimal longitude, LocalDateTime timestamp) {
+        this.vehicleId = vehicleId;
+        this.type = isAtAllowedLocation ? ENTER : EXIT;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.timestamp = timestamp;
+    }
+
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public BigDecimal getLatitude() {
+        return latitude;
+    }
+
+    public BigDecimal getLongitude() {
+        return longitude;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.event;
+
+import org.example.model.Reservation;
+
+public class ReservationChangedEvent {
+    private final Reservation reservation;
+
+    public ReservationChangedEvent(Reservation reservation) {
+        this.reservation = reservation;
+    }
+
+    public Reservation getReservation() {
+        return reservation;
+    }
+}
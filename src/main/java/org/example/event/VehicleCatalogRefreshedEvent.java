@@ -0,0 +1,14 @@
+package org.example.event;
+
+// pojazdy w bazie zmienily sie od ostatniego sprawdzenia (byc moze na innym wezle) - cache'e w pamieci do przeladowania
+public class VehicleCatalogRefreshedEvent {
+    private final String fingerprint;
+
+    public VehicleCatalogRefreshedEvent(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.event;
+
+import org.example.model.Vehicle;
+
+public class VehicleChangedEvent {
+    private final Vehicle vehicle;
+
+    public VehicleChangedEvent(Vehicle vehicle) {
+        this.vehicle = vehicle;
+    }
+
+    public Vehicle getVehicle() {
+        return vehicle;
+    }
+}
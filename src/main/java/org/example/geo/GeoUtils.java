@@ -0,0 +1,37 @@
+package org.example.geo;
+
+public final class GeoUtils {
+    public static final double EARTH_RADIUS_METERS = 6371000;
+    // z tej samej kuli co haversine (~111195 m) - stala 111320 dawala prostokaty stref mniejsze niz okregi
+    public static final double METERS_PER_DEGREE_LAT = Math.toRadians(EARTH_RADIUS_METERS);
+
+    private GeoUtils() {
+    }
+
+    public static double distanceMeters(double lat1, double long1, double lat2, double long2) {
+        double lat1Rad = Math.toRadians(lat1);
+        double long1Rad = Math.toRadians(long1);
+        double lat2Rad = Math.toRadians(lat2);
+        double long2Rad = Math.toRadians(long2);
+
+        double dLat = lat2Rad - lat1Rad;
+        double dLong = long2Rad - long1Rad;
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(lat1Rad) * Math.cos(lat2Rad) *
+                        Math.sin(dLong / 2) * Math.sin(dLong / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_METERS * c;
+    }
+
+    // ile stopni dlugosci geograficznej odpowiada podanej liczbie metrow na danej szerokosci
+    public static double metersToLongitudeDegrees(double meters, double latitude) {
+        double cosLat = Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        return meters / (METERS_PER_DEGREE_LAT * cosLat);
+    }
+
+    public static double metersToLatitudeDegrees(double meters) {
+        return Math.toDegrees(meters / EARTH_RADIUS_METERS);
+    }
+}
@@ -0,0 +1,240 @@
+package org.example.geo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Mutowalna siatka punktow (id -> pozycja) z wyszukiwaniem k najblizszych.
+ * Zapytanie przeszukuje kolejne pierscienie komorek wokol punktu i konczy, gdy nieodwiedzone komorki
+ * sa na pewno dalej niz k-ty najlepszy kandydat, albo gdy pierscien wyszedl poza obszar zajetych komorek.
+ * Gdy pierscienie odwiedzilyby wiecej komorek niz jest punktow (rzadkie punkty, duzy obszar), wynik konczy
+ * pelny skan punktow - zapytanie nie jest obcinane do zadnego promienia.
+ */
+public final class PointGrid {
+    // minimalny budzet komorek na zapytanie - przy malej liczbie punktow pelny skan i tak jest tani
+    private static final int MIN_CELL_BUDGET = 4096;
+
+    private final double cellSize;
+    private final ConcurrentHashMap<Long, Point> points = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<Long, Point>> cells = new ConcurrentHashMap<>();
+    // zakres wierszy/kolumn, w ktorych byl kiedykolwiek punkt; usuwanie go nie zmniejsza (do clear)
+    private final AtomicInteger minRow = new AtomicInteger(Integer.MAX_VALUE);
+    private final AtomicInteger maxRow = new AtomicInteger(Integer.MIN_VALUE);
+    private final AtomicInteger minCol = new AtomicInteger(Integer.MAX_VALUE);
+    private final AtomicInteger maxCol = new AtomicInteger(Integer.MIN_VALUE);
+
+    public PointGrid(double cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    public void put(long id, double latitude, double longitude) {
+        int row = cellIndex(latitude);
+        int col = cellIndex(longitude);
+        minRow.accumulateAndGet(row, Math::min);
+        maxRow.accumulateAndGet(row, Math::max);
+        minCol.accumulateAndGet(col, Math::min);
+        maxCol.accumulateAndGet(col, Math::max);
+        long cell = cellKey(row, col);
+        Point point = new Point(id, latitude, longitude, cell);
+        Point previous = points.put(id, point);
+        if (previous != null && previous.cell != cell) {
+            removeFromCell(previous.cell, id);
+        }
+        cells.computeIfAbsent(cell, k -> new ConcurrentHashMap<>()).put(id, point);
+    }
+
+    public void remove(long id) {
+        Point previous = points.remove(id);
+        if (previous != null) {
+            removeFromCell(previous.cell, id);
+        }
+    }
+
+    public Point get(long id) {
+        return points.get(id);
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    public void forEach(Consumer<Point> consumer) {
+        points.values().forEach(consumer);
+    }
+
+    public void clear() {
+        points.clear();
+        cells.clear();
+        minRow.set(Integer.MAX_VALUE);
+        maxRow.set(Integer.MIN_VALUE);
+        minCol.set(Integer.MAX_VALUE);
+        maxCol.set(Integer.MIN_VALUE);
+    }
+
+    public List<Neighbor> nearest(double latitude, double longitude, int k, LongPredicate filter) {
+        if (k <= 0 || points.isEmpty()) {
+            return Collections.emptyList();
+        }
+        PriorityQueue<Neighbor> best = new PriorityQueue<>(k + 1, (a, b) -> Double.compare(b.distanceMeters, a.distanceMeters));
+        int row = cellIndex(latitude);
+        int col = cellIndex(longitude);
+        int rowFrom = minRow.get();
+        int rowTo = maxRow.get();
+        int colFrom = minCol.get();
+        int colTo = maxCol.get();
+        if (rowFrom > rowTo || colFrom > colTo) {
+            return Collections.emptyList();
+        }
+        // ostatni pierscien, ktory jeszcze dotyka zajetych komorek
+        int extentRing = Math.max(Math.max(row - rowFrom, rowTo - row), Math.max(col - colFrom, colTo - col));
+        double cellMeters = GeoUtils.METERS_PER_DEGREE_LAT * cellSize;
+        // pierscien r ma 8r komorek - po przekroczeniu budzetu taniej przejrzec wszystkie punkty
+        long cellBudget = Math.max(2L * points.size(), MIN_CELL_BUDGET);
+        long visitedCells = 0;
+
+        boolean complete = false;
+        for (int ring = 0; ring <= extentRing + 1; ring++) {
+            // stopien dlugosci jest najkrotszy na skraju pierscienia blizszym biegunowi
+            double polarLatitude = Math.min(Math.abs(latitude) + ring * cellSize, 90);
+            double ringMeters = cellMeters * Math.max(Math.cos(Math.toRadians(polarLatitude)), 0.01);
+            if (best.size() == k && best.peek().distanceMeters <= (ring - 1) * ringMeters) {
+                complete = true;
+                break;
+            }
+            if (ring > extentRing) {
+                complete = true;
+                break;
+            }
+            visitedCells += Math.max(8L * ring, 1);
+            if (visitedCells > cellBudget) {
+                break;
+            }
+            for (int r = Math.max(row - ring, rowFrom); r <= Math.min(row + ring, rowTo); r++) {
+                if (r == row - ring || r == row + ring) {
+                    for (int c = Math.max(col - ring, colFrom); c <= Math.min(col + ring, colTo); c++) {
+                        scanCell(cellKey(r, c), latitude, longitude, k, filter, best);
+                    }
+                } else {
+                    if (col - ring >= colFrom && col - ring <= colTo) {
+                        scanCell(cellKey(r, col - ring), latitude, longitude, k, filter, best);
+                    }
+                    if (ring > 0 && col + ring >= colFrom && col + ring <= colTo) {
+                        scanCell(cellKey(r, col + ring), latitude, longitude, k, filter, best);
+                    }
+                }
+            }
+        }
+        if (!complete) {
+            // dalsze punkty moga byc blizej niz k-ty kandydat - bez obcinania wyniku
+            best.clear();
+            for (Point point : points.values()) {
+                consider(point, latitude, longitude, k, filter, best);
+            }
+        }
+
+        List<Neighbor> result = new ArrayList<>(best);
+        result.sort((a, b) -> Double.compare(a.distanceMeters, b.distanceMeters));
+        return result;
+    }
+
+    private void scanCell(long cell, double latitude, double longitude, int k, LongPredicate filter, PriorityQueue<Neighbor> best) {
+        ConcurrentHashMap<Long, Point> cellPoints = cells.get(cell);
+        if (cellPoints == null) {
+            return;
+        }
+        for (Point point : cellPoints.values()) {
+            consider(point, latitude, longitude, k, filter, best);
+        }
+    }
+
+    private static void consider(Point point, double latitude, double longitude, int k, LongPredicate filter,
+                                 PriorityQueue<Neighbor> best) {
+        if (filter != null && !filter.test(point.id)) {
+            return;
+        }
+        double distance = GeoUtils.distanceMeters(latitude, longitude, point.latitude, point.longitude);
+        if (best.size() < k) {
+            best.add(new Neighbor(point.id, point.latitude, point.longitude, distance));
+        } else if (distance < best.peek().distanceMeters) {
+            best.poll();
+            best.add(new Neighbor(point.id, point.latitude, point.longitude, distance));
+        }
+    }
+
+    private void removeFromCell(long cell, long id) {
+        cells.computeIfPresent(cell, (k, cellPoints) -> {
+            cellPoints.remove(id);
+            return cellPoints.isEmpty() ? null : cellPoints;
+        });
+    }
+
+    private int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / cellSize);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    public static final class Point {
+        private final long id;
+        private final double latitude;
+        private final double longitude;
+        private final long cell;
+
+        private Point(long id, double latitude, double longitude, long cell) {
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cell = cell;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+    }
+
+    public static final class Neighbor {
+        private final long id;
+        private final double latitude;
+        private final double longitude;
+        private final double distanceMeters;
+
+        public Neighbor(long id, double latitude, double longitude, double distanceMeters) {
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.distanceMeters = distanceMeters;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public double getDistanceMeters() {
+            return distanceMeters;
+        }
+    }
+}
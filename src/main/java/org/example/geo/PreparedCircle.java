@@ -0,0 +1,59 @@
+package org.example.geo;
+
+import org.example.model.AllowedLocation;
+
+/**
+ * Strefa kolowa z wyliczonymi z gory radianami i cos(lat) srodka. Test punktu nie alokuje pamieci.
+ */
+public final class PreparedCircle extends PreparedZone {
+    private static final double BOX_PAD = 1e-9;
+    private final double latitude;
+    private final double longitude;
+    private final double radius;
+    private final double latRad;
+    private final double lonRad;
+    private final double cosLat;
+    private final double maxHaversine;
+
+    public PreparedCircle(AllowedLocation location) {
+        super(location);
+        this.latitude = location.getLatitude().doubleValue();
+        this.longitude = location.getLongitude().doubleValue();
+        this.radius = location.getRadiusMeters();
+        this.latRad = Math.toRadians(latitude);
+        this.lonRad = Math.toRadians(longitude);
+        this.cosLat = Math.cos(latRad);
+        // d <= r  <=>  haversine(d / R) <= sin^2(r / 2R), wiec nie trzeba liczyc atan2/sqrt
+        double halfAngle = Math.min(radius / (2 * GeoUtils.EARTH_RADIUS_METERS), Math.PI / 2);
+        this.maxHaversine = Math.sin(halfAngle) * Math.sin(halfAngle);
+
+        // dokladny prostokat okregu na kuli: skrajna dlugosc lezy blizej bieguna niz srodek,
+        // wiec polszerokosc to asin(sin(r/R) / cos(lat)), a nie r / (R cos(lat)); BOX_PAD na bledy zaokraglen
+        double angle = radius / GeoUtils.EARTH_RADIUS_METERS;
+        double dLat = Math.toDegrees(angle) + BOX_PAD;
+        this.minLat = latitude - dLat;
+        this.maxLat = latitude + dLat;
+        if (Math.abs(latRad) + angle >= Math.PI / 2) {
+            // okrag obejmuje biegun
+            this.minLon = -180;
+            this.maxLon = 180;
+        } else {
+            double dLon = Math.toDegrees(Math.asin(Math.sin(angle) / cosLat)) + BOX_PAD;
+            this.minLon = longitude - dLon;
+            this.maxLon = longitude + dLon;
+        }
+    }
+
+    @Override
+    public double distanceToEdgeMeters(double pointLatitude, double pointLongitude) {
+        return Math.max(0, GeoUtils.distanceMeters(pointLatitude, pointLongitude, latitude, longitude) - radius);
+    }
+
+    @Override
+    protected boolean containsPoint(double pointLatitude, double pointLongitude, double pointLatRad, double pointLonRad, double pointCosLat) {
+        double sinDLat = Math.sin((pointLatRad - latRad) / 2);
+        double sinDLon = Math.sin((pointLonRad - lonRad) / 2);
+        double a = sinDLat * sinDLat + pointCosLat * cosLat * sinDLon * sinDLon;
+        return a <= maxHaversine;
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.geo;
+
+import org.example.model.AllowedLocation;
+import org.example.model.GeoPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wielokat z krawedziami w tablicach prymitywow i podzialem na poziome pasy - ray casting dla punktu
+ * sprawdza tylko krawedzie przecinajace jego pas, wiec koszt nie rosnie liniowo z liczba wierzcholkow.
+ */
+public final class PreparedPolygon extends PreparedZone {
+    private static final int MAX_BANDS = 64;
+
+    private final double[] lats;
+    private final double[] lons;
+    private final int[][] bandEdges;
+    private final double bandHeight;
+
+    public PreparedPolygon(AllowedLocation location) {
+        super(location);
+        List<GeoPoint> vertices = location.getVertices();
+        int n = vertices.size();
+        this.lats = new double[n];
+        this.lons = new double[n];
+        minLat = Double.MAX_VALUE;
+        maxLat = -Double.MAX_VALUE;
+        minLon = Double.MAX_VALUE;
+        maxLon = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            lats[i] = vertices.get(i).getLatitude();
+            lons[i] = vertices.get(i).getLongitude();
+            minLat = Math.min(minLat, lats[i]);
+            maxLat = Math.max(maxLat, lats[i]);
+            minLon = Math.min(minLon, lons[i]);
+            maxLon = Math.max(maxLon, lons[i]);
+        }
+
+        int bands = Math.max(1, Math.min(MAX_BANDS, n / 4));
+        this.bandHeight = Math.max((maxLat - minLat) / bands, 1e-12);
+        List<List<Integer>> edgesPerBand = new ArrayList<>(bands);
+        for (int b = 0; b < bands; b++) {
+            edgesPerBand.add(new ArrayList<>());
+        }
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            int from = band(Math.min(lats[i], lats[j]), bands);
+            int to = band(Math.max(lats[i], lats[j]), bands);
+            for (int b = from; b <= to; b++) {
+                edgesPerBand.get(b).add(i);
+            }
+        }
+        this.bandEdges = new int[bands][];
+        for (int b = 0; b < bands; b++) {
+            this.bandEdges[b] = edgesPerBand.get(b).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    @Override
+    protected boolean containsPoint(double latitude, double longitude, double pointLatRad, double pointLonRad, double pointCosLat) {
+        int n = lats.length;
+        boolean inside = false;
+        for (int i : bandEdges[band(latitude, bandEdges.length)]) {
+            int j = i == 0 ? n - 1 : i - 1;
+            if ((lats[i] > latitude) != (lats[j] > latitude)
+                    && longitude < (lons[j] - lons[i]) * (latitude - lats[i]) / (lats[j] - lats[i]) + lons[i]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    @Override
+    public double distanceToEdgeMeters(double latitude, double longitude) {
+        if (contains(latitude, longitude)) {
+            return 0;
+        }
+        // rzut rownoodleglosciowy wokol punktu - wystarczajacy dla stref o rozmiarach miejskich
+        double metersPerLon = GeoUtils.METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(latitude));
+        double best = Double.MAX_VALUE;
+        int n = lats.length;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double ax = (lons[j] - longitude) * metersPerLon;
+            double ay = (lats[j] - latitude) * GeoUtils.METERS_PER_DEGREE_LAT;
+            double bx = (lons[i] - longitude) * metersPerLon;
+            double by = (lats[i] - latitude) * GeoUtils.METERS_PER_DEGREE_LAT;
+            double dx = bx - ax;
+            double dy = by - ay;
+            double lengthSquared = dx * dx + dy * dy;
+            double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, -(ax * dx + ay * dy) / lengthSquared));
+            double px = ax + t * dx;
+            double py = ay + t * dy;
+            best = Math.min(best, Math.sqrt(px * px + py * py));
+        }
+        return best;
+    }
+
+    private int band(double latitude, int bands) {
+        int band = (int) ((latitude - minLat) / bandHeight);
+        return Math.max(0, Math.min(bands - 1, band));
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.geo;
+
+import org.example.model.AllowedLocation;
+
+/**
+ * Strefa przygotowana do szybkiego sprawdzania punktow - prostokat ograniczajacy liczony z gory,
+ * a wlasciwy test ksztaltu dopiero dla punktow wewnatrz prostokata.
+ */
+public abstract class PreparedZone {
+    private final AllowedLocation location;
+    private final boolean mainOffice;
+    protected double minLat;
+    protected double maxLat;
+    protected double minLon;
+    protected double maxLon;
+
+    protected PreparedZone(AllowedLocation location) {
+        this.location = location;
+        this.mainOffice = location.isMainOffice();
+    }
+
+    public static PreparedZone of(AllowedLocation location) {
+        if (location.isPolygon()) {
+            return new PreparedPolygon(location);
+        }
+        return new PreparedCircle(location);
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        if (!boundingBoxContains(latitude, longitude)) {
+            return false;
+        }
+        double pointLatRad = Math.toRadians(latitude);
+        return containsPoint(latitude, longitude, pointLatRad, Math.toRadians(longitude), Math.cos(pointLatRad));
+    }
+
+    // wariant dla petli po wielu strefach - radiany i cos(lat) punktu liczone raz przez wywolujacego
+    public boolean contains(double latitude, double longitude, double pointLatRad, double pointLonRad, double pointCosLat) {
+        return boundingBoxContains(latitude, longitude) && containsPoint(latitude, longitude, pointLatRad, pointLonRad, pointCosLat);
+    }
+
+    public boolean boundingBoxContains(double latitude, double longitude) {
+        return latitude >= minLat && latitude <= maxLat && longitude >= minLon && longitude <= maxLon;
+    }
+
+    // 0 gdy punkt jest w strefie
+    public abstract double distanceToEdgeMeters(double latitude, double longitude);
+
+    protected abstract boolean containsPoint(double latitude, double longitude, double pointLatRad, double pointLonRad, double pointCosLat);
+
+    public AllowedLocation getLocation() {
+        return location;
+    }
+
+    public boolean isMainOffice() {
+        return mainOffice;
+    }
+
+    public double getMinLat() {
+        return minLat;
+    }
+
+    public double getMaxLat() {
+        return maxLat;
+    }
+
+    public double getMinLon() {
+        return minLon;
+    }
+
+    public double getMaxLon() {
+        return maxLon;
+    }
+}
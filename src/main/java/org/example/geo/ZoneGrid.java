@@ -0,0 +1,146 @@
+package org.example.geo;
+
+import org.example.model.AllowedLocation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Niemutowalna siatka stref (geohash-like) - kazda strefa trafia do wszystkich komorek,
+ * ktore pokrywa jej prostokat ograniczajacy, wiec zapytanie o punkt sprawdza tylko jedna komorke.
+ */
+public final class ZoneGrid {
+    public static final double DEFAULT_CELL_SIZE_DEGREES = 0.01;
+    private static final int MAX_CELLS_PER_ZONE = 4096;
+    private static final PreparedZone[] EMPTY = new PreparedZone[0];
+
+    private final double cellSize;
+    private final Map<Long, PreparedZone[]> cells;
+    private final PreparedZone[] oversized;
+    private final PreparedZone[] zones;
+
+    private ZoneGrid(double cellSize, Map<Long, PreparedZone[]> cells, PreparedZone[] oversized, PreparedZone[] zones) {
+        this.cellSize = cellSize;
+        this.cells = cells;
+        this.oversized = oversized;
+        this.zones = zones;
+    }
+
+    public static ZoneGrid empty() {
+        return new ZoneGrid(DEFAULT_CELL_SIZE_DEGREES, Collections.emptyMap(), EMPTY, EMPTY);
+    }
+
+    public static ZoneGrid build(List<AllowedLocation> locations) {
+        return build(locations, DEFAULT_CELL_SIZE_DEGREES);
+    }
+
+    public static ZoneGrid build(List<AllowedLocation> locations, double cellSize) {
+        Map<Long, List<PreparedZone>> buckets = new HashMap<>();
+        List<PreparedZone> oversized = new ArrayList<>();
+        List<PreparedZone> prepared = new ArrayList<>(locations.size());
+
+        for (AllowedLocation location : locations) {
+            if (!isPreparable(location)) {
+                continue;
+            }
+            PreparedZone zone = PreparedZone.of(location);
+            prepared.add(zone);
+
+            int minRow = cellIndex(zone.getMinLat(), cellSize);
+            int maxRow = cellIndex(zone.getMaxLat(), cellSize);
+            int minCol = cellIndex(zone.getMinLon(), cellSize);
+            int maxCol = cellIndex(zone.getMaxLon(), cellSize);
+
+            long cellCount = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+            if (cellCount > MAX_CELLS_PER_ZONE) {
+                oversized.add(zone);
+                continue;
+            }
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int col = minCol; col <= maxCol; col++) {
+                    buckets.computeIfAbsent(cellKey(row, col), k -> new ArrayList<>(2)).add(zone);
+                }
+            }
+        }
+
+        Map<Long, PreparedZone[]> cells = new HashMap<>(buckets.size() * 2);
+        buckets.forEach((key, list) -> cells.put(key, list.toArray(EMPTY)));
+        return new ZoneGrid(cellSize, cells, oversized.toArray(EMPTY), prepared.toArray(EMPTY));
+    }
+
+    public boolean anyContains(double latitude, double longitude) {
+        return firstContaining(latitude, longitude, false) != null;
+    }
+
+    public boolean anyMainOfficeContains(double latitude, double longitude) {
+        return firstContaining(latitude, longitude, true) != null;
+    }
+
+    public List<AllowedLocation> findContaining(double latitude, double longitude) {
+        double latRad = Math.toRadians(latitude);
+        double lonRad = Math.toRadians(longitude);
+        double cosLat = Math.cos(latRad);
+
+        List<AllowedLocation> result = new ArrayList<>();
+        for (PreparedZone zone : candidates(latitude, longitude)) {
+            if (zone.contains(latitude, longitude, latRad, lonRad, cosLat)) {
+                result.add(zone.getLocation());
+            }
+        }
+        for (PreparedZone zone : oversized) {
+            if (zone.contains(latitude, longitude, latRad, lonRad, cosLat)) {
+                result.add(zone.getLocation());
+            }
+        }
+        return result;
+    }
+
+    public PreparedZone[] zones() {
+        return zones;
+    }
+
+    public int size() {
+        return zones.length;
+    }
+
+    private static boolean isPreparable(AllowedLocation location) {
+        if (location.isPolygon()) {
+            return location.getVertices() != null && location.getVertices().size() >= 3;
+        }
+        return location.getLatitude() != null && location.getLongitude() != null && location.getRadiusMeters() != null;
+    }
+
+    private PreparedZone firstContaining(double latitude, double longitude, boolean mainOfficeOnly) {
+        double latRad = Math.toRadians(latitude);
+        double lonRad = Math.toRadians(longitude);
+        double cosLat = Math.cos(latRad);
+
+        for (PreparedZone zone : candidates(latitude, longitude)) {
+            if ((!mainOfficeOnly || zone.isMainOffice()) && zone.contains(latitude, longitude, latRad, lonRad, cosLat)) {
+                return zone;
+            }
+        }
+        for (PreparedZone zone : oversized) {
+            if ((!mainOfficeOnly || zone.isMainOffice()) && zone.contains(latitude, longitude, latRad, lonRad, cosLat)) {
+                return zone;
+            }
+        }
+        return null;
+    }
+
+    private PreparedZone[] candidates(double latitude, double longitude) {
+        PreparedZone[] bucket = cells.get(cellKey(cellIndex(latitude, cellSize), cellIndex(longitude, cellSize)));
+        return bucket != null ? bucket : EMPTY;
+    }
+
+    private static int cellIndex(double degrees, double cellSize) {
+        return (int) Math.floor(degrees / cellSize);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+}
@@ -2,10 +2,13 @@ package org.example.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.springframework.cglib.core.Local;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Entity
 @Data
@@ -30,6 +33,16 @@ public class AllowedLocation {
     @Column(name = "radius_meters", nullable = false)
     private Integer radiusMeters;
 
+    // dla POLYGON latitude/longitude/radiusMeters to srodek i promien okregu opisanego, liczone przy zapisie
+    @Enumerated(EnumType.STRING)
+    @Column(name = "shape")
+    @Builder.Default
+    private ZoneShape shape = ZoneShape.CIRCLE;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "vertices", columnDefinition = "jsonb")
+    private List<GeoPoint> vertices;
+
     @Column(name = "is_main_office")
     private boolean isMainOffice = false;
 
@@ -54,6 +67,10 @@ public class AllowedLocation {
         this.updatedAt = LocalDateTime.now();
     }
 
+    public boolean isPolygon() {
+        return shape == ZoneShape.POLYGON;
+    }
+
     @PrePersist
     public void prePresist() {
         this.createdAt = LocalDateTime.now();
@@ -0,0 +1,60 @@
+package org.example.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "vehicle_location_history",
+        indexes = @Index(name = "idx_location_history_vehicle_time", columnList = "vehicle_id, recorded_at"))
+public class LocationHistoryEntry {
+    // wspolrzedne trzymane jako stopnie * 10^7 w int - ~1 cm dokladnosci, 8 bajtow zamiast dwoch numeric
+    public static final double COORDINATE_SCALE = 1e7;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "location_history_seq")
+    @SequenceGenerator(name = "location_history_seq", sequenceName = "vehicle_location_history_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "vehicle_id", nullable = false)
+    private Long vehicleId;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    @Column(name = "lat_e7", nullable = false)
+    private int latE7;
+
+    @Column(name = "lon_e7", nullable = false)
+    private int lonE7;
+
+    @Column(name = "at_allowed_location", nullable = false)
+    private boolean atAllowedLocation;
+
+    public static LocationHistoryEntry of(Vehicle vehicle) {
+        LocationHistoryEntry entry = new LocationHistoryEntry();
+        entry.setVehicleId(vehicle.getId());
+        entry.setRecordedAt(vehicle.getLastLocationUpdate());
+        entry.setLatE7(toFixed(vehicle.getLatitude()));
+        entry.setLonE7(toFixed(vehicle.getLongitude()));
+        entry.setAtAllowedLocation(vehicle.isAtAllowedLocation());
+        return entry;
+    }
+
+    public double latitude() {
+        return latE7 / COORDINATE_SCALE;
+    }
+
+    public double longitude() {
+        return lonE7 / COORDINATE_SCALE;
+    }
+
+    private static int toFixed(BigDecimal coordinate) {
+        return (int) Math.round(coordinate.doubleValue() * COORDINATE_SCALE);
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// rezerwacja pojazdu na przedzial [startTime, endTime)
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "reservation")
+public class Reservation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "vehicle_id", nullable = false)
+    private Long vehicleId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(name = "cancelled", nullable = false)
+    private boolean cancelled = false;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // w bazie nadpisywane zegarem bazy przez trigger (db/indexes.sql) - z tej wartosci liczony jest odcisk
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        return startTime.isBefore(to) && endTime.isAfter(from);
+    }
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
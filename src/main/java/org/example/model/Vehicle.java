@@ -1,9 +1,13 @@
     package org.example.model;
 
+    import com.fasterxml.jackson.annotation.JsonIgnore;
     import jakarta.persistence.*;
     import lombok.*;
-    import org.hibernate.annotations.JdbcTypeCode;
-    import org.hibernate.type.SqlTypes;
+    import org.example.MapToJsonConverter;
+    import org.hibernate.annotations.ColumnTransformer;
+    import org.hibernate.annotations.DynamicUpdate;
+    import org.hibernate.annotations.Mutability;
+    import org.hibernate.type.descriptor.java.Immutability;
 
     import java.math.BigDecimal;
     import java.time.LocalDateTime;
@@ -18,10 +22,14 @@
     @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
     @DiscriminatorColumn(name = "type", discriminatorType = DiscriminatorType.STRING)
     @Table(name = "vehicle")
+    // UPDATE tylko zmienionych kolumn - zapis pozycji nie przepisuje rented/deleted ze swojej kopii wiersza
+    @DynamicUpdate
     public class Vehicle {
 
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        // sekwencja z pula 50 zamiast IDENTITY - pozwala Hibernate wstawiac pojazdy paczkami JDBC
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehicle_seq")
+        @SequenceGenerator(name = "vehicle_seq", sequenceName = "vehicle_seq", allocationSize = 50)
         private Long id;
 
         @Column(insertable = false, updatable = false)
@@ -41,7 +49,11 @@
         @Column(nullable = false, unique = true)
         private String plate;
 
-        @JdbcTypeCode(SqlTypes.JSON)
+        // mapa niemodyfikowalna po odczycie - zmiana atrybutow to setAttributes(nowa mapa);
+        // Immutability pomija kopie migawki przy kazdym zaladowaniu pojazdu
+        @Convert(converter = MapToJsonConverter.class)
+        @ColumnTransformer(write = "?::jsonb")
+        @Mutability(Immutability.class)
         @Column(columnDefinition = "jsonb")
         private Map<String, String> attributes;
 
@@ -57,6 +69,16 @@
         @Column(name = "last_location_update")
         private LocalDateTime lastLocationUpdate;
 
+        // czas przyjecia pozycji (zegar bazy, trigger w db/indexes.sql) - lastLocationUpdate pochodzi z zegara urzadzenia
+        @JsonIgnore
+        @Column(name = "location_received_at", insertable = false, updatable = false)
+        private LocalDateTime locationReceivedAt;
+
+        // ustawiane zegarem bazy przez trigger (db/indexes.sql) przy kazdym INSERT/UPDATE, rowniez zbiorczym
+        @JsonIgnore
+        @Column(name = "updated_at", insertable = false, updatable = false)
+        private LocalDateTime updatedAt;
+
         @Column(name = "isAtAllowedLocation")
         private boolean isAtAllowedLocation;
 
@@ -73,11 +95,14 @@
             this.isAtAllowedLocation = true;
         }
         public void updateLocation(BigDecimal latitude, BigDecimal longitude, String locationName, boolean isAtAllowedLocation) {
+            updateLocation(latitude, longitude, locationName, isAtAllowedLocation, LocalDateTime.now());
+        }
+        public void updateLocation(BigDecimal latitude, BigDecimal longitude, String locationName, boolean isAtAllowedLocation, LocalDateTime timestamp) {
             this.latitude = latitude;
             this.longitude = longitude;
             this.locationName = locationName;
             this.isAtAllowedLocation = isAtAllowedLocation;
-            this.lastLocationUpdate = LocalDateTime.now();
+            this.lastLocationUpdate = timestamp;
         }
 
         @Override
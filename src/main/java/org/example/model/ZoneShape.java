@@ -0,0 +1,6 @@
+package org.example.model;
+
+public enum ZoneShape {
+    CIRCLE,
+    POLYGON
+}
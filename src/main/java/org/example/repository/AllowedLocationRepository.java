@@ -1,6 +1,7 @@
 package org.example.repository;
 
 import org.example.model.AllowedLocation;
+import org.example.model.ZoneShape;
 
 import java.util.List;
 
@@ -9,8 +10,11 @@ public interface AllowedLocationRepository {
     AllowedLocation findById(Long Id);
     List<AllowedLocation> findAll();
     List<AllowedLocation> findAllActive();
+    List<AllowedLocation> findAllActiveByShape(ZoneShape shape);
     List<AllowedLocation> findByIsMainOffice(boolean isMainOffice);
     void delete(AllowedLocation allowedLocation);
     void deleteById(long Id);
     AllowedLocation findByNameAndIsActiveTrue(String name);
+    // liczba wierszy i ostatnia modyfikacja - wykrywa zmiany stref zrobione na innych wezlach
+    String fingerprint();
 }
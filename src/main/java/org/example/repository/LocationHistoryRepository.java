@@ -0,0 +1,12 @@
+package org.example.repository;
+
+import org.example.model.LocationHistoryEntry;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+public interface LocationHistoryRepository {
+    void append(LocationHistoryEntry entry);
+    // wyniki sa strumieniowane kursorem, nie ladujemy calej trasy do pamieci
+    long forEachInRange(Long vehicleId, LocalDateTime from, LocalDateTime to, Consumer<LocationHistoryEntry> consumer);
+}
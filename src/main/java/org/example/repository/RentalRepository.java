@@ -1,5 +1,6 @@
 package org.example.repository;
 
+import org.example.dto.RentalSummary;
 import org.example.model.Rental;
 
 import java.util.List;
@@ -19,4 +20,9 @@ public interface RentalRepository{
     List<Rental> historyByUserId(Long userId);
     List<Rental> findActiveRentalByUserId(Long userId);
     Rental findByStripeSessionId(String sessionId);
+
+    // projekcje dla list - returned == null oznacza wszystkie
+    List<RentalSummary> findSummaries(Boolean returned);
+    List<RentalSummary> findSummariesByUserId(Long userId, Boolean returned);
+    List<RentalSummary> findSummariesByVehicleId(Long vehicleId);
 }
\ No newline at end of file
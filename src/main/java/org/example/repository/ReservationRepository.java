@@ -0,0 +1,20 @@
+package org.example.repository;
+
+import org.example.model.Reservation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ReservationRepository {
+    Reservation save(Reservation reservation);
+    Reservation findById(Long id);
+    List<Reservation> findByUserId(Long userId);
+    List<Reservation> findByVehicleId(Long vehicleId);
+    // aktywne (nieanulowane) rezerwacje pojazdu nachodzace na [from, to)
+    boolean existsOverlap(Long vehicleId, LocalDateTime from, LocalDateTime to);
+    // aktywna rezerwacja innego uzytkownika obejmujaca chwile at
+    boolean existsActiveByOtherUser(Long vehicleId, Long userId, LocalDateTime at);
+    List<Reservation> findActiveEndingAfter(LocalDateTime time);
+    // zmienia sie przy kazdym zapisie rezerwacji, rowniez na innym wezle
+    String fingerprint();
+}
@@ -0,0 +1,15 @@
+package org.example.repository;
+
+import java.util.List;
+
+// czas wygasniecia liczony zegarem bazy - zegary wezlow moga sie rozjezdzac
+public interface SchedulerLeaseRepository {
+    // przejmuje dzierzawe jesli jest nasza albo wygasla; false gdy nie istnieje lub trzyma ja ktos inny
+    boolean tryAcquire(String name, String owner, long ttlMs);
+    // tworzy nowa dzierzawe w osobnej transakcji; false gdy juz istnieje albo inny wezel wstawil ja rownolegle
+    boolean tryCreate(String name, String owner, long ttlMs);
+    void release(String name, String owner);
+    void releaseAll(String owner);
+    List<String> findActiveNames(String owner, String prefix);
+    long countActiveOwners(String prefix);
+}
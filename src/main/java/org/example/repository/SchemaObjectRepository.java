@@ -0,0 +1,9 @@
+package org.example.repository;
+
+// obiekty tworzone przez db/indexes.sql (katalog PostgreSQL) - skrypt idzie z continue-on-error, wiec bledu nie widac
+public interface SchemaObjectRepository {
+    // wlaczony trigger o podanej nazwie na tabeli
+    boolean triggerExists(String table, String name);
+    boolean constraintExists(String name);
+    boolean indexExists(String name);
+}
@@ -1,5 +1,6 @@
 package org.example.repository;
 
+import org.example.dto.UserSummary;
 import org.example.model.User;
 import org.springframework.data.jpa.repository.EntityGraph;
 
@@ -29,4 +30,7 @@ public interface UserRepository {
 
     List<User> findDeletedUsers();
 
+    // deleted == null - wszyscy
+    List<UserSummary> findSummaries(Boolean deleted);
+
 }
\ No newline at end of file
@@ -1,23 +1,65 @@
 package org.example.repository;
 
+import org.example.dto.VehicleListFilter;
+import org.example.dto.VehicleSearchCriteria;
+import org.example.dto.VehicleSummary;
 import org.example.model.Vehicle;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface VehicleRepository {
     Vehicle save(Vehicle vehicle);
     void delete(Vehicle vehicle);
     Vehicle findById(Long id);
+    // SELECT ... FOR UPDATE - serializuje zapisy dotyczace jednego pojazdu (wypozyczenie, rezerwacje) miedzy wezlami
+    Vehicle findByIdForUpdate(Long id);
+    // zapisy pozycji: wiersze blokowane (rosnaco po id) do konca transakcji, zeby zapis calego wiersza
+    // nie nadpisal wypozyczenia/zwrotu zatwierdzonego po odczycie, a zdarzenie nioslo aktualny stan
+    List<Vehicle> findByIdInForUpdate(Collection<Long> ids);
+    // ponowny odczyt pojazdu z blokada wiersza - dla encji odczytanej wczesniej bez blokady
+    Vehicle refreshForUpdate(Vehicle vehicle);
     List<Vehicle> findAll();
     List<Vehicle> findByRentedFalse();
     List<Vehicle> findAllActive();
     void deleteById(Long id);
     List<Vehicle> findByRentedTrue();
+    List<Long> findIdsByRentedTrue();
     List<Vehicle> getAvailabeVehicles();
     List<Vehicle> findByDeletedTrue();
+    // stronicowanie po kluczu: id > afterId ORDER BY id, koszt strony nie zalezy od jej pozycji
+    List<VehicleSummary> findSummaryPage(VehicleListFilter filter, Long afterId, int limit);
+    List<VehicleSummary> findAvailableSummaries();
+    List<VehicleSummary> search(VehicleSearchCriteria criteria, int limit);
 
 
     //nowe metody
     List<Vehicle> findByIsAtAllowedLocationFalse();
     List<Vehicle> findByLatitudeIsNotNullAndLongitudeIsNotNull();
+    // shard pojazdu to id % shardCount
+    List<Vehicle> findByLocationReceivedAfterInShards(LocalDateTime since, int shardCount, Collection<Integer> shards);
+
+    // przegladanie paczkami po id ze stala pamiecia - kazda paczka we wlasnej transakcji (REQUIRES_NEW),
+    // wiec zmiany consumera i ich zdarzenia sa zatwierdzane co paczke; consumer nie powinien trzymac referencji do pojazdow.
+    // Skan nie widzi niezatwierdzonych zmian wywolujacego i nie jest spojna migawka - wiersz zmieniony w trakcie
+    // moze byc widziany przed albo po zmianie (zdarzenie tej zmiany i tak przychodzi)
+    long forEachVehicle(Consumer<Vehicle> consumer);
+    long forEachLocated(Consumer<Vehicle> consumer);
+    long forEachLocatedInShards(int shardCount, Collection<Integer> shards, Consumer<Vehicle> consumer);
+
+    // warunkowa zmiana statusu (UPDATE ... WHERE rented = false / true) - blokada wiersza do konca transakcji,
+    // rownolegly konkurent po niej nie zmieni juz zadnego wiersza; null = stan sie nie zgadzal
+    Vehicle markRented(Long vehicleId);
+    Vehicle markReturned(Long vehicleId);
+
+    // import: nowe pojazdy w jednej transakcji, wstawiane paczkami JDBC
+    void insertAll(List<Vehicle> vehicles);
+    Set<String> findExistingPlates(Collection<String> plates);
+    // biezacy czas bazy - ten sam zegar, ktorym trigger stempluje location_received_at na kazdym wezle
+    LocalDateTime currentDatabaseTime();
+    // liczba wierszy i ostatnia modyfikacja (zegar bazy) - wykrywa zmiany pojazdow zrobione na innych wezlach
+    String fingerprint();
     }
\ No newline at end of file
@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.example.model.AllowedLocation;
+import org.example.model.ZoneShape;
 import org.example.repository.AllowedLocationRepository;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -44,6 +45,15 @@ public class AllowedLocationRepositoryImpl implements AllowedLocationRepository
         return entityManager.createQuery("SELECT a FROM AllowedLocation a WHERE a.isActive = true", AllowedLocation.class).getResultList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<AllowedLocation> findAllActiveByShape(ZoneShape shape) {
+        String condition = shape == ZoneShape.CIRCLE ? "(a.shape = :shape OR a.shape IS NULL)" : "a.shape = :shape";
+        return entityManager.createQuery("SELECT a FROM AllowedLocation a WHERE a.isActive = true AND " + condition, AllowedLocation.class)
+                .setParameter("shape", shape)
+                .getResultList();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<AllowedLocation> findByIsMainOffice(boolean isMainOffice) {
@@ -74,4 +84,12 @@ public class AllowedLocationRepositoryImpl implements AllowedLocationRepository
 
         return result.isEmpty() ? null : result.get(0);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String fingerprint() {
+        Object[] row = entityManager.createQuery("SELECT COUNT(a), MAX(a.updatedAt) FROM AllowedLocation a", Object[].class)
+                .getSingleResult();
+        return row[0] + "|" + row[1];
+    }
 }
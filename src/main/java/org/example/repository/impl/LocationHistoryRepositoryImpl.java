@@ -0,0 +1,53 @@
+package org.example.repository.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.model.LocationHistoryEntry;
+import org.example.repository.LocationHistoryRepository;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Repository
+@Transactional
+public class LocationHistoryRepositoryImpl implements LocationHistoryRepository {
+    private static final int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void append(LocationHistoryEntry entry) {
+        entityManager.persist(entry);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachInRange(Long vehicleId, LocalDateTime from, LocalDateTime to, Consumer<LocationHistoryEntry> consumer) {
+        long count = 0;
+        try (Stream<LocationHistoryEntry> stream = entityManager.createQuery(
+                        "SELECT h FROM LocationHistoryEntry h WHERE h.vehicleId = :vehicleId " +
+                                "AND h.recordedAt >= :from AND h.recordedAt < :to ORDER BY h.recordedAt",
+                        LocationHistoryEntry.class)
+                .setParameter("vehicleId", vehicleId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            Iterator<LocationHistoryEntry> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                LocationHistoryEntry entry = iterator.next();
+                consumer.accept(entry);
+                entityManager.detach(entry);
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 import org.springframework.transaction.annotation.Transactional;
+import org.example.dto.RentalSummary;
 import org.example.model.Rental;
 import org.example.repository.RentalRepository;
 import org.hibernate.Session;
@@ -16,6 +17,9 @@ import java.util.Optional;
 @Repository
 @Transactional
 public class RentalRepositoryImpl implements RentalRepository {
+    private static final String RENTAL_SUMMARY = "SELECT new org.example.dto.RentalSummary(" +
+            "r.id, r.vehicleId, r.userId, r.rentDate, r.returnDate, r.returned, r.totalCost, r.paymentStatus, r.rentalDays) FROM Rental r";
+
     @PersistenceContext
     private  EntityManager entityManager;
 
@@ -71,8 +75,10 @@ public class RentalRepositoryImpl implements RentalRepository {
         TypedQuery<Rental> query = entityManager.createQuery(
                         "SELECT r FROM Rental r WHERE r.vehicleId = :vehicleId AND r.returned = false",
                         Rental.class)
-                .setParameter("vehicleId", vehicleId);
+                .setParameter("vehicleId", vehicleId)
+                .setMaxResults(1);
 
+        // unikalny indeks uq_rental_active_vehicle - najwyzej jedno aktywne wypozyczenie pojazdu
         List<Rental> results = query.getResultList();
         return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
     }
@@ -119,4 +125,36 @@ public class RentalRepositoryImpl implements RentalRepository {
         List<Rental> results = query.getResultList();
         return results.isEmpty() ? null : results.get(0);
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RentalSummary> findSummaries(Boolean returned) {
+        TypedQuery<RentalSummary> query = entityManager.createQuery(
+                RENTAL_SUMMARY + (returned != null ? " WHERE r.returned = :returned" : "") + " ORDER BY r.id", RentalSummary.class);
+        if (returned != null) {
+            query.setParameter("returned", returned);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RentalSummary> findSummariesByUserId(Long userId, Boolean returned) {
+        TypedQuery<RentalSummary> query = entityManager.createQuery(
+                        RENTAL_SUMMARY + " WHERE r.userId = :userId" + (returned != null ? " AND r.returned = :returned" : "") + " ORDER BY r.id",
+                        RentalSummary.class)
+                .setParameter("userId", userId);
+        if (returned != null) {
+            query.setParameter("returned", returned);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RentalSummary> findSummariesByVehicleId(Long vehicleId) {
+        return entityManager.createQuery(RENTAL_SUMMARY + " WHERE r.vehicleId = :vehicleId ORDER BY r.id", RentalSummary.class)
+                .setParameter("vehicleId", vehicleId)
+                .getResultList();
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.repository.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.event.ReservationChangedEvent;
+import org.example.model.Reservation;
+import org.example.repository.ReservationRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@Transactional
+public class ReservationRepositoryImpl implements ReservationRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReservationRepositoryImpl(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public Reservation save(Reservation reservation) {
+        Reservation saved;
+        if (reservation.getId() == null) {
+            entityManager.persist(reservation);
+            saved = reservation;
+        } else {
+            saved = entityManager.merge(reservation);
+        }
+        // flush przed commitem - ograniczenie wykluczajace zglasza konflikt tutaj, a zdarzenie niesie updatedAt
+        entityManager.flush();
+        eventPublisher.publishEvent(new ReservationChangedEvent(saved));
+        return saved;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Reservation findById(Long id) {
+        return entityManager.find(Reservation.class, id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Reservation> findByUserId(Long userId) {
+        return entityManager.createQuery(
+                        "SELECT r FROM Reservation r WHERE r.userId = :userId ORDER BY r.startTime", Reservation.class)
+                .setParameter("userId", userId)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Reservation> findByVehicleId(Long vehicleId) {
+        return entityManager.createQuery(
+                        "SELECT r FROM Reservation r WHERE r.vehicleId = :vehicleId ORDER BY r.startTime", Reservation.class)
+                .setParameter("vehicleId", vehicleId)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsOverlap(Long vehicleId, LocalDateTime from, LocalDateTime to) {
+        return !entityManager.createQuery(
+                        "SELECT r.id FROM Reservation r WHERE r.vehicleId = :vehicleId AND r.cancelled = false " +
+                                "AND r.startTime < :to AND r.endTime > :from", Long.class)
+                .setParameter("vehicleId", vehicleId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsActiveByOtherUser(Long vehicleId, Long userId, LocalDateTime at) {
+        return !entityManager.createQuery(
+                        "SELECT r.id FROM Reservation r WHERE r.vehicleId = :vehicleId AND r.userId <> :userId " +
+                                "AND r.cancelled = false AND r.startTime <= :at AND r.endTime > :at", Long.class)
+                .setParameter("vehicleId", vehicleId)
+                .setParameter("userId", userId)
+                .setParameter("at", at)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Reservation> findActiveEndingAfter(LocalDateTime time) {
+        return entityManager.createQuery(
+                        "SELECT r FROM Reservation r WHERE r.cancelled = false AND r.endTime > :time", Reservation.class)
+                .setParameter("time", time)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String fingerprint() {
+        Object[] row = entityManager.createQuery("SELECT COUNT(r), MAX(r.updatedAt) FROM Reservation r", Object[].class)
+                .getSingleResult();
+        return row[0] + "|" + row[1];
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.repository.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.repository.SchedulerLeaseRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// LOCALTIMESTAMP zamiast LocalDateTime.now() - wygasniecie porownywane jednym zegarem (bazy) dla wszystkich wezlow
+@Repository
+@Transactional
+public class SchedulerLeaseRepositoryImpl implements SchedulerLeaseRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public boolean tryAcquire(String name, String owner, long ttlMs) {
+        int updated = entityManager.createNativeQuery(
+                        "UPDATE scheduler_lease SET owner = :owner, expires_at = LOCALTIMESTAMP + :ttlMs * INTERVAL '1 millisecond' " +
+                                "WHERE name = :name AND (owner = :owner OR expires_at < LOCALTIMESTAMP)")
+                .setParameter("owner", owner)
+                .setParameter("ttlMs", ttlMs)
+                .setParameter("name", name)
+                .executeUpdate();
+        return updated == 1;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryCreate(String name, String owner, long ttlMs) {
+        int inserted = entityManager.createNativeQuery(
+                        "INSERT INTO scheduler_lease (name, owner, expires_at) " +
+                                "VALUES (:name, :owner, LOCALTIMESTAMP + :ttlMs * INTERVAL '1 millisecond') ON CONFLICT (name) DO NOTHING")
+                .setParameter("name", name)
+                .setParameter("owner", owner)
+                .setParameter("ttlMs", ttlMs)
+                .executeUpdate();
+        return inserted == 1;
+    }
+
+    @Override
+    public void release(String name, String owner) {
+        entityManager.createNativeQuery("UPDATE scheduler_lease SET expires_at = LOCALTIMESTAMP WHERE name = :name AND owner = :owner")
+                .setParameter("name", name)
+                .setParameter("owner", owner)
+                .executeUpdate();
+    }
+
+    @Override
+    public void releaseAll(String owner) {
+        entityManager.createNativeQuery("UPDATE scheduler_lease SET expires_at = LOCALTIMESTAMP WHERE owner = :owner")
+                .setParameter("owner", owner)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<String> findActiveNames(String owner, String prefix) {
+        return entityManager.createNativeQuery(
+                        "SELECT name FROM scheduler_lease WHERE owner = :owner AND name LIKE :prefix AND expires_at > LOCALTIMESTAMP",
+                        String.class)
+                .setParameter("owner", owner)
+                .setParameter("prefix", prefix + "%")
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countActiveOwners(String prefix) {
+        return ((Number) entityManager.createNativeQuery(
+                        "SELECT COUNT(DISTINCT owner) FROM scheduler_lease WHERE name LIKE :prefix AND expires_at > LOCALTIMESTAMP")
+                .setParameter("prefix", prefix + "%")
+                .getSingleResult()).longValue();
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.repository.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.repository.SchemaObjectRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@Transactional(readOnly = true)
+public class SchemaObjectRepositoryImpl implements SchemaObjectRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public boolean triggerExists(String table, String name) {
+        return !entityManager.createNativeQuery(
+                        "SELECT 1 FROM pg_trigger t JOIN pg_class c ON c.oid = t.tgrelid " +
+                                "WHERE c.relname = :table AND t.tgname = :name AND t.tgenabled <> 'D'")
+                .setParameter("table", table)
+                .setParameter("name", name)
+                .getResultList()
+                .isEmpty();
+    }
+
+    @Override
+    public boolean constraintExists(String name) {
+        return !entityManager.createNativeQuery("SELECT 1 FROM pg_constraint WHERE conname = :name")
+                .setParameter("name", name)
+                .getResultList()
+                .isEmpty();
+    }
+
+    @Override
+    public boolean indexExists(String name) {
+        // indisvalid = false - indeks po nieudanej budowie
+        return !entityManager.createNativeQuery(
+                        "SELECT 1 FROM pg_class c JOIN pg_index i ON i.indexrelid = c.oid WHERE c.relname = :name AND i.indisvalid")
+                .setParameter("name", name)
+                .getResultList()
+                .isEmpty();
+    }
+}
@@ -3,6 +3,7 @@ package org.example.repository.impl;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.example.dto.UserSummary;
 import org.example.model.User;
 import org.example.repository.UserRepository;
 import org.hibernate.Session;
@@ -11,7 +12,12 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Repository
 @Transactional
@@ -100,4 +106,32 @@ public class UserRepositoryImpl implements UserRepository {
                 .getResultList();
     }
 
-}
\ No newline at end of file
+    // dwa plaskie zapytania zamiast encji z EAGER roles - role dolaczane po id
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSummary> findSummaries(Boolean deleted) {
+        String condition = deleted == null ? "" : " WHERE u.deleted = :deleted";
+        TypedQuery<Object[]> usersQuery = entityManager.createQuery(
+                "SELECT u.id, u.login, u.address, u.postalCode, u.country, u.deleted FROM User u" + condition + " ORDER BY u.id",
+                Object[].class);
+        TypedQuery<Object[]> rolesQuery = entityManager.createQuery(
+                "SELECT u.id, r.name FROM User u JOIN u.roles r" + condition, Object[].class);
+        if (deleted != null) {
+            usersQuery.setParameter("deleted", deleted);
+            rolesQuery.setParameter("deleted", deleted);
+        }
+
+        Map<Long, Set<String>> roles = new HashMap<>();
+        for (Object[] row : rolesQuery.getResultList()) {
+            roles.computeIfAbsent((Long) row[0], id -> new TreeSet<>()).add((String) row[1]);
+        }
+        List<Object[]> rows = usersQuery.getResultList();
+        List<UserSummary> summaries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            summaries.add(new UserSummary(id, (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                    Boolean.TRUE.equals(row[5]), Set.copyOf(roles.getOrDefault(id, Set.of()))));
+        }
+        return summaries;
+    }
+}
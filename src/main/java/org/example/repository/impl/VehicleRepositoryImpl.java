@@ -1,33 +1,77 @@
 package org.example.repository.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.example.dto.VehicleListFilter;
+import org.example.dto.VehicleSearchCriteria;
+import org.example.dto.VehicleSortField;
+import org.example.dto.VehicleSummary;
+import org.example.event.VehicleChangedEvent;
 import org.example.model.Car;
 import org.example.model.Motorcycle;
 import org.example.model.Vehicle;
 import org.example.repository.VehicleRepository;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 @Repository
 @Transactional
 public class VehicleRepositoryImpl implements VehicleRepository {
+    private static final int SCAN_CHUNK_SIZE = 500;
+    // zgodne z hibernate.jdbc.batch_size
+    private static final int INSERT_FLUSH_SIZE = 50;
+    // projekcja wprost do rekordu - bez encji w kontekscie utrwalania i bez parsowania jsonb
+    private static final String VEHICLE_SUMMARY = "SELECT new org.example.dto.VehicleSummary(" +
+            "v.id, v.type, v.brand, v.model, v.year, v.price, v.plate, v.rented, v.deleted) FROM Vehicle v";
+
     @PersistenceContext
     private  EntityManager entityManager;
 
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate chunkTransaction;
+
+    public VehicleRepositoryImpl(ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager) {
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
     @Override
     public Vehicle save(Vehicle vehicle) {
+        Vehicle saved;
         if (vehicle.getId() == null) {
             entityManager.persist(vehicle);
-            return vehicle;
+            saved = vehicle;
         } else {
-            return entityManager.merge(vehicle);
+            saved = entityManager.merge(vehicle);
         }
+        eventPublisher.publishEvent(new VehicleChangedEvent(saved));
+        return saved;
     }
 
 
@@ -36,6 +80,7 @@ public class VehicleRepositoryImpl implements VehicleRepository {
         Vehicle managedVehicle = entityManager.contains(vehicle) ? vehicle : entityManager.merge(vehicle);
         managedVehicle.setDeleted(true);
         entityManager.merge(managedVehicle);
+        eventPublisher.publishEvent(new VehicleChangedEvent(managedVehicle));
     }
     @Override
     public void deleteById(Long vehicleId) {
@@ -43,6 +88,7 @@ public class VehicleRepositoryImpl implements VehicleRepository {
         if (vehicle != null) {
             vehicle.setDeleted(true);
             entityManager.merge(vehicle);
+            eventPublisher.publishEvent(new VehicleChangedEvent(vehicle));
         }
     }
 
@@ -50,6 +96,29 @@ public class VehicleRepositoryImpl implements VehicleRepository {
     public Vehicle findById(Long id) {
         return entityManager.find(Vehicle.class, id);    }
 
+    @Override
+    public Vehicle findByIdForUpdate(Long id) {
+        return entityManager.find(Vehicle.class, id, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    @Override
+    public List<Vehicle> findByIdInForUpdate(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // blokady zawsze rosnaco po id - dwie paczki z tymi samymi pojazdami nie zakleszcza sie
+        return entityManager.createQuery("SELECT v FROM Vehicle v WHERE v.id IN :ids ORDER BY v.id", Vehicle.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    @Override
+    public Vehicle refreshForUpdate(Vehicle vehicle) {
+        entityManager.refresh(vehicle, LockModeType.PESSIMISTIC_WRITE);
+        return vehicle;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Vehicle> findAll() {
@@ -77,6 +146,12 @@ public class VehicleRepositoryImpl implements VehicleRepository {
         return entityManager.createQuery("SELECT v FROM Vehicle v WHERE v.rented = true", Vehicle.class)
                 .getResultList();
     }
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findIdsByRentedTrue() {
+        return entityManager.createQuery("SELECT v.id FROM Vehicle v WHERE v.rented = true AND v.deleted = false ORDER BY v.id", Long.class)
+                .getResultList();
+    }
     public List<Car> findAllCars() {
         return entityManager.createQuery("SELECT c FROM Car c", Car.class)
                 .getResultList();
@@ -96,6 +171,99 @@ public class VehicleRepositoryImpl implements VehicleRepository {
         return entityManager.createQuery("SELECT v FROM Vehicle v WHERE v.deleted = true", Vehicle.class)
                 .getResultList();
     }
+    @Override
+    @Transactional(readOnly = true)
+    public List<VehicleSummary> findSummaryPage(VehicleListFilter filter, Long afterId, int limit) {
+        return entityManager.createQuery(VEHICLE_SUMMARY + " WHERE v.id > :afterId" + statusCondition(filter, "v.") + " ORDER BY v.id", VehicleSummary.class)
+                .setParameter("afterId", afterId != null ? afterId : 0L)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // natywny SQL, bo filtr atrybutow to jsonb @> (indeks GIN); kolumny sortowania tylko z enuma, wartosci tylko jako parametry
+    @Override
+    @Transactional(readOnly = true)
+    public List<VehicleSummary> search(VehicleSearchCriteria criteria, int limit) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, type, brand, model, year, price, plate, rented, deleted FROM vehicle WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+        sql.append(statusCondition(criteria.getStatus(), ""));
+        if (criteria.getType() != null) {
+            sql.append(" AND type = :type");
+            params.put("type", criteria.getType());
+        }
+        if (criteria.getBrand() != null) {
+            sql.append(" AND lower(brand) = lower(:brand)");
+            params.put("brand", criteria.getBrand());
+        }
+        if (criteria.getModel() != null) {
+            sql.append(" AND lower(model) = lower(:model)");
+            params.put("model", criteria.getModel());
+        }
+        if (criteria.getYearFrom() != null) {
+            sql.append(" AND year >= :yearFrom");
+            params.put("yearFrom", criteria.getYearFrom());
+        }
+        if (criteria.getYearTo() != null) {
+            sql.append(" AND year <= :yearTo");
+            params.put("yearTo", criteria.getYearTo());
+        }
+        if (criteria.getPriceFrom() != null) {
+            sql.append(" AND price >= :priceFrom");
+            params.put("priceFrom", criteria.getPriceFrom());
+        }
+        if (criteria.getPriceTo() != null) {
+            sql.append(" AND price <= :priceTo");
+            params.put("priceTo", criteria.getPriceTo());
+        }
+        if (criteria.getLicenceCategory() != null) {
+            sql.append(" AND licence_category = :licenceCategory");
+            params.put("licenceCategory", criteria.getLicenceCategory());
+        }
+        if (!criteria.getAttributes().isEmpty()) {
+            sql.append(" AND attributes @> CAST(:attributes AS jsonb)");
+            params.put("attributes", toJson(criteria.getAttributes()));
+        }
+
+        String column = criteria.getSort().getColumn();
+        String direction = criteria.isDescending() ? " DESC" : " ASC";
+        if (criteria.getAfterId() != null) {
+            String operator = criteria.isDescending() ? " < " : " > ";
+            if (criteria.getSort() == VehicleSortField.ID) {
+                sql.append(" AND id").append(operator).append(":afterId");
+            } else {
+                sql.append(" AND (").append(column).append(", id)").append(operator).append("(:afterValue, :afterId)");
+                params.put("afterValue", criteria.getAfterValue());
+            }
+            params.put("afterId", criteria.getAfterId());
+        }
+        sql.append(" ORDER BY ");
+        if (criteria.getSort() != VehicleSortField.ID) {
+            sql.append(column).append(direction).append(", ");
+        }
+        sql.append("id").append(direction);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        params.forEach(query::setParameter);
+        // zapytanie natywne zwraca surowa liste wierszy
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.setMaxResults(limit).getResultList();
+        List<VehicleSummary> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            result.add(new VehicleSummary(((Number) row[0]).longValue(), (String) row[1], (String) row[2], (String) row[3],
+                    ((Number) row[4]).intValue(), ((Number) row[5]).intValue(), (String) row[6],
+                    (Boolean) row[7], (Boolean) row[8]));
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<VehicleSummary> findAvailableSummaries() {
+        return entityManager.createQuery(VEHICLE_SUMMARY + " WHERE v.rented = false AND v.deleted = false ORDER BY v.id", VehicleSummary.class)
+                .getResultList();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Vehicle> findByIsAtAllowedLocationFalse() {
@@ -106,4 +274,159 @@ public class VehicleRepositoryImpl implements VehicleRepository {
     public List<Vehicle> findByLatitudeIsNotNullAndLongitudeIsNotNull() {
         return entityManager.createQuery("SELECT v FROM Vehicle v WHERE v.latitude IS NOT NULL AND v.longitude IS NOT NULL AND v.deleted = false").getResultList();
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Vehicle> findByLocationReceivedAfterInShards(LocalDateTime since, int shardCount, Collection<Integer> shards) {
+        if (shards.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return entityManager.createQuery(
+                        "SELECT v FROM Vehicle v WHERE v.locationReceivedAt > :since AND MOD(v.id, :shardCount) IN :shards AND v.latitude IS NOT NULL AND v.longitude IS NOT NULL AND v.deleted = false ORDER BY v.id",
+                        Vehicle.class)
+                .setParameter("since", since)
+                .setParameter("shardCount", (long) shardCount)
+                .setParameter("shards", toLongs(shards))
+                .getResultList();
+    }
+
+    private static List<Long> toLongs(Collection<Integer> values) {
+        List<Long> result = new ArrayList<>(values.size());
+        for (Integer value : values) {
+            result.add(value.longValue());
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long forEachVehicle(Consumer<Vehicle> consumer) {
+        return scan("", Map.of(), consumer);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long forEachLocated(Consumer<Vehicle> consumer) {
+        return scan(" AND v.latitude IS NOT NULL AND v.longitude IS NOT NULL AND v.deleted = false", Map.of(), consumer);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long forEachLocatedInShards(int shardCount, Collection<Integer> shards, Consumer<Vehicle> consumer) {
+        if (shards.isEmpty()) {
+            return 0;
+        }
+        return scan(" AND MOD(v.id, :shardCount) IN :shards AND v.latitude IS NOT NULL AND v.longitude IS NOT NULL AND v.deleted = false",
+                Map.of("shardCount", (long) shardCount, "shards", toLongs(shards)), consumer);
+    }
+
+    @Override
+    public Vehicle markRented(Long vehicleId) {
+        return updateRented(vehicleId,
+                "UPDATE Vehicle v SET v.rented = true WHERE v.id = :id AND v.rented = false AND v.deleted = false");
+    }
+
+    @Override
+    public Vehicle markReturned(Long vehicleId) {
+        return updateRented(vehicleId,
+                "UPDATE Vehicle v SET v.rented = false WHERE v.id = :id AND v.rented = true");
+    }
+
+    private Vehicle updateRented(Long vehicleId, String update) {
+        int updated = entityManager.createQuery(update).setParameter("id", vehicleId).executeUpdate();
+        if (updated == 0) {
+            return null;
+        }
+        // UPDATE omija kontekst utrwalania - pojazd zaladowany wczesniej w tej transakcji ma stary stan
+        Vehicle vehicle = entityManager.find(Vehicle.class, vehicleId);
+        entityManager.refresh(vehicle);
+        eventPublisher.publishEvent(new VehicleChangedEvent(vehicle));
+        return vehicle;
+    }
+
+    @Override
+    public void insertAll(List<Vehicle> vehicles) {
+        for (int i = 0; i < vehicles.size(); i++) {
+            entityManager.persist(vehicles.get(i));
+            if ((i + 1) % INSERT_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        for (Vehicle vehicle : vehicles) {
+            eventPublisher.publishEvent(new VehicleChangedEvent(vehicle));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> findExistingPlates(Collection<String> plates) {
+        if (plates.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(entityManager.createQuery("SELECT v.plate FROM Vehicle v WHERE v.plate IN :plates", String.class)
+                .setParameter("plates", plates)
+                .getResultList());
+    }
+
+    // zmiany zrobione przez consumer ida do bazy przy zatwierdzeniu paczki, potem kontekst paczki jest zamykany.
+    // Paczki po id (id > ostatnie z poprzedniej paczki), kazda we wlasnej transakcji - zmiany consumera i zdarzenia
+    // (VehicleChangedEvent trzyma encje) sa zatwierdzane i rozsylane co paczke, wiec pamiec nie rosnie z rozmiarem floty
+    private long scan(String condition, Map<String, Object> params, Consumer<Vehicle> consumer) {
+        long count = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            long[] chunk = chunkTransaction.execute(status -> {
+                TypedQuery<Vehicle> query = entityManager.createQuery(
+                                "SELECT v FROM Vehicle v WHERE v.id > :afterId" + condition + " ORDER BY v.id", Vehicle.class)
+                        .setParameter("afterId", from)
+                        .setMaxResults(SCAN_CHUNK_SIZE);
+                params.forEach(query::setParameter);
+                List<Vehicle> vehicles = query.getResultList();
+                vehicles.forEach(consumer);
+                return new long[]{vehicles.size(), vehicles.isEmpty() ? from : vehicles.get(vehicles.size() - 1).getId()};
+            });
+            count += chunk[0];
+            if (chunk[0] < SCAN_CHUNK_SIZE) {
+                return count;
+            }
+            afterId = chunk[1];
+        }
+    }
+
+    private static String statusCondition(VehicleListFilter filter, String prefix) {
+        return switch (filter) {
+            case ALL -> "";
+            case ACTIVE -> " AND " + prefix + "deleted = false";
+            case AVAILABLE -> " AND " + prefix + "rented = false AND " + prefix + "deleted = false";
+            case RENTED -> " AND " + prefix + "rented = true";
+            case DELETED -> " AND " + prefix + "deleted = true";
+        };
+    }
+
+    private String toJson(Map<String, String> attributes) {
+        try {
+            return objectMapper.writeValueAsString(attributes);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Nieprawidlowe atrybuty: " + e.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LocalDateTime currentDatabaseTime() {
+        Object now = entityManager.createNativeQuery("SELECT LOCALTIMESTAMP").getSingleResult();
+        return now instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) now;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String fingerprint() {
+        Object[] row = entityManager.createQuery("SELECT COUNT(v), MAX(v.updatedAt) FROM Vehicle v", Object[].class)
+                .getSingleResult();
+        return row[0] + "|" + row[1];
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.scheduler;
+
+import org.example.service.ReservationIndex;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReservationScheduler {
+    private final ReservationIndex reservationIndex;
+
+    public ReservationScheduler(ReservationIndex reservationIndex) {
+        this.reservationIndex = reservationIndex;
+    }
+    // kazdy wezel trzyma wlasny indeks - zmiany z innych wezlow widoczne najpozniej po tym czasie
+    @Scheduled(fixedRate = 30000)
+    public void refreshReservationIndex() {
+        if (reservationIndex.refreshIfChanged()) {
+            System.out.printf("Przeladowano indeks rezerwacji%n");
+        }
+    }
+}
@@ -1,34 +1,44 @@
 package org.example.scheduler;
 
-import org.example.model.Vehicle;
-import org.example.repository.VehicleRepository;
+import org.example.dto.SimulationRunStats;
+import org.example.service.ClusterCoordinator;
+import org.example.service.LocationSimulationJob;
 import org.example.service.VehicleLocationService;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
+import java.util.Set;
 
 @Component
 public class VehicleLocationScheduler {
     private final VehicleLocationService vehicleLocationService;
-    private final VehicleRepository vehicleRepository;
+    private final LocationSimulationJob locationSimulationJob;
+    private final ClusterCoordinator clusterCoordinator;
 
-    public VehicleLocationScheduler(VehicleLocationService vehicleLocationService, VehicleRepository vehicleRepository) {
+    public VehicleLocationScheduler(VehicleLocationService vehicleLocationService, LocationSimulationJob locationSimulationJob,
+                                    ClusterCoordinator clusterCoordinator) {
         this.vehicleLocationService = vehicleLocationService;
-        this.vehicleRepository = vehicleRepository;
+        this.locationSimulationJob = locationSimulationJob;
+        this.clusterCoordinator = clusterCoordinator;
     }
+    // symulacja ruchu ma chodzic na jednym wezle naraz
     @Scheduled(fixedRate = 180000)
     public void updateRandomVehicleLocations() {
-        List<Vehicle> rentedVehicles = vehicleRepository.findByRentedTrue();
-
-        for(Vehicle vehicle : rentedVehicles) {
-            vehicleLocationService.setRandomVehicleLocation(vehicle.getId());
+        if (!clusterCoordinator.acquireSingleton("random-vehicle-locations")) {
+            return;
+        }
+        if (locationSimulationJob.run()) {
+            SimulationRunStats stats = locationSimulationJob.getStats();
+            System.out.printf("Zaktualizowano lokacjie " + stats.getLastRunVehicles() + " pojazdow w " + stats.getLastRunMillis() + " ms%n");
         }
-        System.out.printf("Zaktualizowano lokacjie " + rentedVehicles.size() + " pojazdow");
     }
     @Scheduled(fixedRate = 60000)
     public void updateAllVehicleLocationStatus() {
-        vehicleLocationService.updateAllVehicleLocationStatus();
-        System.out.printf("Zaktualizowno lokacje wszystkich pojazdow!");
+        Set<Integer> shards = clusterCoordinator.claimShards("location-status");
+        if (shards.isEmpty()) {
+            return;
+        }
+        int flipped = vehicleLocationService.updateChangedVehicleLocationStatus(clusterCoordinator.getShardCount(), shards);
+        System.out.printf("Zaktualizowno status lokacji (shardy " + shards + "), zmieniono " + flipped + " pojazdow%n");
     }
 }
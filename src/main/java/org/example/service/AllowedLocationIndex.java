@@ -0,0 +1,116 @@
+package org.example.service;
+
+import org.example.dto.NearbyZone;
+import org.example.event.AllowedLocationsChangedEvent;
+import org.example.event.AllowedLocationsReindexedEvent;
+import org.example.geo.PreparedZone;
+import org.example.geo.ZoneGrid;
+import org.example.model.AllowedLocation;
+import org.example.repository.AllowedLocationRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class AllowedLocationIndex {
+    private final AllowedLocationRepository allowedLocationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicLong version = new AtomicLong();
+    private volatile ZoneGrid grid;
+    private volatile String fingerprint;
+
+    public AllowedLocationIndex(AllowedLocationRepository allowedLocationRepository, ApplicationEventPublisher eventPublisher) {
+        this.allowedLocationRepository = allowedLocationRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public boolean isAllowed(BigDecimal latitude, BigDecimal longitude) {
+        if (latitude == null || longitude == null) {
+            return false;
+        }
+        return grid().anyContains(latitude.doubleValue(), longitude.doubleValue());
+    }
+
+    public boolean isAtMainOffice(BigDecimal latitude, BigDecimal longitude) {
+        if (latitude == null || longitude == null) {
+            return false;
+        }
+        return grid().anyMainOfficeContains(latitude.doubleValue(), longitude.doubleValue());
+    }
+
+    public List<AllowedLocation> findContaining(BigDecimal latitude, BigDecimal longitude) {
+        if (latitude == null || longitude == null) {
+            return List.of();
+        }
+        return grid().findContaining(latitude.doubleValue(), longitude.doubleValue());
+    }
+
+    public List<NearbyZone> findNearest(double latitude, double longitude, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        Comparator<NearbyZone> byDistance = Comparator.comparingDouble(NearbyZone::getDistanceMeters);
+        PriorityQueue<NearbyZone> best = new PriorityQueue<>(k + 1, byDistance.reversed());
+        for (PreparedZone zone : grid().zones()) {
+            double distance = zone.distanceToEdgeMeters(latitude, longitude);
+            if (best.size() < k || distance < best.peek().getDistanceMeters()) {
+                AllowedLocation location = zone.getLocation();
+                best.add(new NearbyZone(location.getId(), location.getName(), zone.isMainOffice(), distance));
+                if (best.size() > k) {
+                    best.poll();
+                }
+            }
+        }
+        List<NearbyZone> result = new ArrayList<>(best);
+        result.sort(byDistance);
+        return result;
+    }
+
+    public ZoneGrid snapshot() {
+        return grid();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAllowedLocationsChanged(AllowedLocationsChangedEvent event) {
+        rebuild();
+    }
+
+    // przebudowuje indeks tylko gdy strefy w bazie zmienily sie od ostatniej budowy (np. na innym wezle)
+    public synchronized boolean refreshIfChanged() {
+        if (grid != null && allowedLocationRepository.fingerprint().equals(fingerprint)) {
+            return false;
+        }
+        rebuild();
+        return true;
+    }
+
+    public synchronized void rebuild() {
+        fingerprint = allowedLocationRepository.fingerprint();
+        grid = ZoneGrid.build(allowedLocationRepository.findAllActive());
+        eventPublisher.publishEvent(new AllowedLocationsReindexedEvent(version.incrementAndGet()));
+    }
+
+    private ZoneGrid grid() {
+        ZoneGrid current = grid;
+        if (current == null) {
+            synchronized (this) {
+                if (grid == null) {
+                    rebuild();
+                }
+                current = grid;
+            }
+        }
+        return current;
+    }
+}
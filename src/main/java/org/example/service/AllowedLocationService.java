@@ -1,23 +1,39 @@
 package org.example.service;
 
+import org.example.event.AllowedLocationsChangedEvent;
+import org.example.geo.GeoUtils;
 import org.example.model.AllowedLocation;
+import org.example.model.GeoPoint;
+import org.example.model.ZoneShape;
 import org.example.repository.AllowedLocationRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.List;
 
 @Service
 @Transactional
 public class AllowedLocationService {
     private final AllowedLocationRepository allowedLocationRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AllowedLocationService(AllowedLocationRepository allowedLocationRepository) {
+    public AllowedLocationService(AllowedLocationRepository allowedLocationRepository, ApplicationEventPublisher eventPublisher) {
         this.allowedLocationRepository = allowedLocationRepository;
+        this.eventPublisher = eventPublisher;
     }
     public AllowedLocation save(AllowedLocation allowedLocation) {
-        return allowedLocationRepository.save(allowedLocation);
+        if (allowedLocation.isPolygon()) {
+            preparePolygon(allowedLocation);
+        } else if (allowedLocation.getLatitude() == null || allowedLocation.getLongitude() == null
+                || allowedLocation.getRadiusMeters() == null || allowedLocation.getRadiusMeters() <= 0) {
+            throw new IllegalArgumentException("Strefa kolowa wymaga wspolrzednych srodka i dodatniego promienia!");
+        }
+        AllowedLocation saved = allowedLocationRepository.save(allowedLocation);
+        eventPublisher.publishEvent(new AllowedLocationsChangedEvent(saved.getId()));
+        return saved;
     }
     public AllowedLocation findById(Long id) {
         return allowedLocationRepository.findById(id);
@@ -28,11 +44,15 @@ public class AllowedLocationService {
     public List<AllowedLocation> findAllActive() {
         return allowedLocationRepository.findAllActive();
     }
+    public List<AllowedLocation> findAllActiveByShape(ZoneShape shape) {
+        return allowedLocationRepository.findAllActiveByShape(shape);
+    }
     public List<AllowedLocation> findMainOffices() {
         return allowedLocationRepository.findByIsMainOffice(true);
     }
     public void deleteById(Long id) {
         allowedLocationRepository.deleteById(id);
+        eventPublisher.publishEvent(new AllowedLocationsChangedEvent(id));
     }
     public AllowedLocation createMainOffice(String name, BigDecimal latitude, BigDecimal longitude, Integer radiusMeters) {
         AllowedLocation mainOffice = AllowedLocation.builder()
@@ -45,4 +65,30 @@ public class AllowedLocationService {
                 .build();
         return save(mainOffice);
     }
+
+    // srodek i promien okregu opisanego na wielokacie - zeby kolumny NOT NULL i zapytania o odleglosc dzialaly jak dla kola
+    private void preparePolygon(AllowedLocation allowedLocation) {
+        List<GeoPoint> vertices = allowedLocation.getVertices();
+        if (vertices == null || vertices.size() < 3) {
+            throw new IllegalArgumentException("Wielokat musi miec co najmniej 3 wierzcholki!");
+        }
+        double latSum = 0;
+        double lonSum = 0;
+        for (GeoPoint vertex : vertices) {
+            if (Math.abs(vertex.getLatitude()) > 90 || Math.abs(vertex.getLongitude()) > 180) {
+                throw new IllegalArgumentException("Nieprawidlowe wspolrzedne wierzcholka wielokata!");
+            }
+            latSum += vertex.getLatitude();
+            lonSum += vertex.getLongitude();
+        }
+        double centerLat = latSum / vertices.size();
+        double centerLon = lonSum / vertices.size();
+        double radius = 0;
+        for (GeoPoint vertex : vertices) {
+            radius = Math.max(radius, GeoUtils.distanceMeters(centerLat, centerLon, vertex.getLatitude(), vertex.getLongitude()));
+        }
+        allowedLocation.setLatitude(BigDecimal.valueOf(centerLat).setScale(8, RoundingMode.HALF_UP));
+        allowedLocation.setLongitude(BigDecimal.valueOf(centerLon).setScale(8, RoundingMode.HALF_UP));
+        allowedLocation.setRadiusMeters((int) Math.ceil(radius));
+    }
 }
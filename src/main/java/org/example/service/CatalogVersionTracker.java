@@ -0,0 +1,81 @@
+package org.example.service;
+
+import org.example.event.AllowedLocationsChangedEvent;
+import org.example.event.AllowedLocationsReindexedEvent;
+import org.example.event.VehicleCatalogRefreshedEvent;
+import org.example.event.VehicleChangedEvent;
+import org.example.repository.VehicleRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wersje katalogu pojazdow i stref do ETag-ow. Podbijane po commicie kazdego zapisu przez repozytoria,
+ * wiec ETag odczytany przed zapytaniem nigdy nie jest nowszy niz zwrocone dane.
+ * Zapisy z innych wezlow wykrywa okresowe porownanie odcisku tabeli pojazdow (zegar bazy), jak refreshIfChanged stref.
+ * Licznik zyje w pamieci - identyfikator uruchomienia w ETagu uniewaznia stare ETagi po restarcie.
+ */
+@Component
+public class CatalogVersionTracker {
+    private final VehicleRepository vehicleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String bootId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong vehicleVersion = new AtomicLong();
+    private final AtomicLong zoneVersion = new AtomicLong();
+    private String vehicleFingerprint;
+
+    public CatalogVersionTracker(VehicleRepository vehicleRepository, ApplicationEventPublisher eventPublisher) {
+        this.vehicleRepository = vehicleRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public String vehicleEtag() {
+        return "\"v-" + bootId + "-" + vehicleVersion.get() + "\"";
+    }
+
+    public String zoneEtag() {
+        return "\"z-" + bootId + "-" + zoneVersion.get() + "\"";
+    }
+
+    // po cache'ach w pamieci - inaczej nowy ETag moglby trafic do klienta razem ze starymi danymi
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        vehicleVersion.incrementAndGet();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAllowedLocationsChanged(AllowedLocationsChangedEvent event) {
+        zoneVersion.incrementAndGet();
+    }
+
+    // najpierw cache'e przeladowuja sie z bazy (synchronicznie), dopiero potem nowa wersja
+    @Scheduled(fixedDelayString = "${app.catalog.refresh-interval-ms:5000}")
+    public synchronized boolean refreshIfChanged() {
+        String current = vehicleRepository.fingerprint();
+        if (current.equals(vehicleFingerprint)) {
+            return false;
+        }
+        boolean first = vehicleFingerprint == null;
+        vehicleFingerprint = current;
+        if (!first) {
+            eventPublisher.publishEvent(new VehicleCatalogRefreshedEvent(current));
+            vehicleVersion.incrementAndGet();
+        }
+        return true;
+    }
+
+    // przebudowa indeksu wykrywa tez zmiany stref zrobione na innych wezlach
+    @EventListener
+    public void onAllowedLocationsReindexed(AllowedLocationsReindexedEvent event) {
+        zoneVersion.incrementAndGet();
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.repository.SchedulerLeaseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Koordynacja zadan miedzy instancjami aplikacji przez tabele dzierzaw (scheduler_lease).
+ * Zadania pojedyncze biora jedna dzierzawe, zadania flotowe dziela przestrzen id pojazdow na shardy,
+ * z ktorych kazdy wezel bierze swoja rowna czesc. Dzierzawa niewznowiona przed wygasnieciem moze zostac przejeta.
+ */
+@Component
+public class ClusterCoordinator {
+    private static final String NODE_PREFIX = "node:";
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final String nodeId;
+
+    @Value("${app.cluster.shards:16}")
+    private int shardCount;
+
+    // musi byc dluzszy niz najdluzszy okres zadania pilnowanego dzierzawa (symulacja: 180 s),
+    // inaczej dzierzawa wygasa miedzy przebiegami i zadanie moze ruszyc na dwoch wezlach
+    @Value("${app.cluster.lease-ttl-ms:300000}")
+    private long leaseTtlMs;
+
+    public ClusterCoordinator(SchedulerLeaseRepository leaseRepository) {
+        this.leaseRepository = leaseRepository;
+        this.nodeId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public boolean acquireSingleton(String job) {
+        return acquire("job:" + job);
+    }
+
+    // zwraca shardy zadania, ktore ten wezel ma przetworzyc w tym przebiegu; przy bledzie bazy - zadnego
+    public Set<Integer> claimShards(String job) {
+        Set<Integer> owned = new TreeSet<>();
+        try {
+            acquire(NODE_PREFIX + nodeId);
+            long nodes = Math.max(1, leaseRepository.countActiveOwners(NODE_PREFIX));
+            int fairShare = (int) Math.ceil((double) shardCount / nodes);
+            String prefix = shardPrefix(job);
+
+            List<String> held = leaseRepository.findActiveNames(nodeId, prefix);
+            for (String name : held) {
+                int shard = Integer.parseInt(name.substring(prefix.length()));
+                if (shard >= shardCount) {
+                    continue;
+                }
+                if (owned.size() < fairShare && acquire(name)) {
+                    owned.add(shard);
+                } else {
+                    leaseRepository.release(name, nodeId);
+                }
+            }
+
+            int offset = Math.floorMod(nodeId.hashCode(), shardCount);
+            for (int i = 0; i < shardCount && owned.size() < fairShare; i++) {
+                int shard = (offset + i) % shardCount;
+                if (!owned.contains(shard) && acquire(prefix + shard)) {
+                    owned.add(shard);
+                }
+            }
+        } catch (RuntimeException e) {
+            // wziete dzierzawy zostaja do wygasniecia albo nastepnego przebiegu, ale ten przebieg nic nie liczy
+            System.out.printf("Nie udalo sie przydzielic shardow zadania %s: %s%n", job, e.getMessage());
+            return new TreeSet<>();
+        }
+        return owned;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        try {
+            leaseRepository.releaseAll(nodeId);
+        } catch (RuntimeException e) {
+            System.out.printf("Nie udalo sie zwolnic dzierzaw wezla %s: %s%n", nodeId, e.getMessage());
+        }
+    }
+
+    private boolean acquire(String name) {
+        try {
+            return leaseRepository.tryAcquire(name, nodeId, leaseTtlMs)
+                    || leaseRepository.tryCreate(name, nodeId, leaseTtlMs);
+        } catch (RuntimeException e) {
+            // np. chwilowy brak polaczenia z baza - w tym przebiegu bez dzierzawy
+            return false;
+        }
+    }
+
+    private static String shardPrefix(String job) {
+        return "shard:" + job + ":";
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.event.LocationTransitionEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rozsyla zdarzenia wjazdu/wyjazdu ze stref do subskrybentow SSE. Wysylka idzie osobna pula watkow,
+ * zeby wolny klient nie blokowal transakcji zapisujacej pozycje. Kazdy subskrybent ma wlasna ograniczona
+ * kolejke - klient, ktory nie nadaza i ja przepelni, zostaje rozlaczony zamiast wstrzymywac pozostalych.
+ */
+@Component
+public class LocationEventBroadcaster {
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+    private static final int QUEUE_CAPACITY = 256;
+    // ile zdarzen jeden subskrybent wysyla bez oddawania watku innym
+    private static final int SEND_BATCH = 64;
+    private static final int SEND_THREADS = 4;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final ExecutorService sendExecutor = Executors.newFixedThreadPool(SEND_THREADS, r -> {
+        Thread thread = new Thread(r, "location-events-sse-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong dropped = new AtomicLong();
+
+    public SseEmitter subscribe(Collection<Long> vehicleIds, String type) {
+        if (type != null && !LocationTransitionEvent.ENTER.equals(type) && !LocationTransitionEvent.EXIT.equals(type)) {
+            throw new IllegalArgumentException("Typ zdarzenia musi byc ENTER albo EXIT!");
+        }
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Subscription subscription = new Subscription(emitter,
+                vehicleIds == null ? Set.of() : Set.copyOf(vehicleIds), type);
+        subscriptions.add(subscription);
+
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(e -> subscriptions.remove(subscription));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransition(LocationTransitionEvent event) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.matches(event)) {
+                enqueue(subscription, SseEmitter.event().name(event.getType()).data(event));
+            }
+        }
+    }
+
+    // heartbeat wykrywa zerwane polaczenia, gdy zaden pojazd sie nie rusza
+    @Scheduled(fixedRate = 30000)
+    public void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            enqueue(subscription, SseEmitter.event().comment("ping"));
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    // subskrybenci rozlaczeni przez przepelniona kolejke
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+        for (Subscription subscription : subscriptions) {
+            subscription.emitter.complete();
+        }
+        subscriptions.clear();
+    }
+
+    private void enqueue(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        if (!subscription.queue.offer(event)) {
+            dropped.incrementAndGet();
+            subscriptions.remove(subscription);
+            subscription.queue.clear();
+            subscription.emitter.complete();
+            return;
+        }
+        scheduleDrain(subscription);
+    }
+
+    // najwyzej jedno zadanie wysylki na subskrybenta - zachowuje kolejnosc zdarzen
+    private void scheduleDrain(Subscription subscription) {
+        if (subscription.draining.compareAndSet(false, true)) {
+            sendExecutor.execute(() -> drain(subscription));
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            for (int i = 0; i < SEND_BATCH && (event = subscription.queue.poll()) != null; i++) {
+                if (!send(subscription, event)) {
+                    subscription.queue.clear();
+                    return;
+                }
+            }
+        } finally {
+            subscription.draining.set(false);
+        }
+        if (!subscription.queue.isEmpty() && subscriptions.contains(subscription)) {
+            scheduleDrain(subscription);
+        }
+    }
+
+    private boolean send(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        try {
+            subscription.emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            subscriptions.remove(subscription);
+            subscription.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        private final Set<Long> vehicleIds;
+        private final String type;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscription(SseEmitter emitter, Set<Long> vehicleIds, String type) {
+            this.emitter = emitter;
+            this.vehicleIds = vehicleIds;
+            this.type = type;
+        }
+
+        private boolean matches(LocationTransitionEvent event) {
+            return (vehicleIds.isEmpty() || vehicleIds.contains(event.getVehicleId()))
+                    && (type == null || type.equals(event.getType()));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.service;
+
+import org.example.model.LocationHistoryEntry;
+import org.example.model.Vehicle;
+import org.example.repository.LocationHistoryRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+@Service
+@Transactional
+public class LocationHistoryService {
+    private final LocationHistoryRepository locationHistoryRepository;
+
+    public LocationHistoryService(LocationHistoryRepository locationHistoryRepository) {
+        this.locationHistoryRepository = locationHistoryRepository;
+    }
+
+    public void record(Vehicle vehicle) {
+        if (vehicle.getId() == null || vehicle.getLatitude() == null || vehicle.getLongitude() == null
+                || vehicle.getLastLocationUpdate() == null) {
+            return;
+        }
+        locationHistoryRepository.append(LocationHistoryEntry.of(vehicle));
+    }
+
+    @Transactional(readOnly = true)
+    public long forEachInRange(Long vehicleId, LocalDateTime from, LocalDateTime to, Consumer<LocationHistoryEntry> consumer) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Poczatek zakresu musi byc przed jego koncem!");
+        }
+        return locationHistoryRepository.forEachInRange(vehicleId, from, to, consumer);
+    }
+}
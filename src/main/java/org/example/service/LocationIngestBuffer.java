@@ -0,0 +1,207 @@
+package org.example.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.dto.IngestBufferStats;
+import org.example.dto.LocationUpdateRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bufor pozycji przed zapisem do bazy - dla kazdego pojazdu trzyma tylko najnowsza pozycje
+ * i zrzuca je paczkami po przekroczeniu rozmiaru albo co okreslony czas.
+ */
+@Component
+public class LocationIngestBuffer {
+    private final VehicleLocationService vehicleLocationService;
+    private final ConcurrentHashMap<Long, LocationUpdateRequest> pending = new ConcurrentHashMap<>();
+    // nieudane zrzuty pozycji czekajacej w buforze, per pojazd
+    private final ConcurrentHashMap<Long, Integer> failedAttempts = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "location-ingest-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushedUpdates = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong requeuedUpdates = new AtomicLong();
+    private final AtomicLong droppedUpdates = new AtomicLong();
+    private final AtomicLong totalFlushMillis = new AtomicLong();
+    private final AtomicLong maxFlushMillis = new AtomicLong();
+    private volatile long lastFlushMillis;
+
+    @Value("${app.location.ingest.max-pending:50000}")
+    private int maxPending;
+
+    @Value("${app.location.ingest.flush-size:1000}")
+    private int flushSize;
+
+    @Value("${app.location.ingest.max-attempts:5}")
+    private int maxAttempts;
+
+    public LocationIngestBuffer(VehicleLocationService vehicleLocationService) {
+        this.vehicleLocationService = vehicleLocationService;
+    }
+
+    // false = bufor pelny (backpressure), klient powinien ponowic pozniej
+    public boolean offer(LocationUpdateRequest update) {
+        if (update == null || update.getVehicleId() == null) {
+            return false;
+        }
+        received.incrementAndGet();
+        if (update.getTimestamp() == null) {
+            update.setTimestamp(LocalDateTime.now());
+        }
+        if (pending.size() >= maxPending && !pending.containsKey(update.getVehicleId())) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        pending.merge(update.getVehicleId(), update, (current, incoming) -> {
+            coalesced.incrementAndGet();
+            return newer(current, incoming);
+        });
+        // nowsza pozycja zastapila ponawiana - liczy prob od nowa
+        if (!failedAttempts.isEmpty() && pending.get(update.getVehicleId()) == update) {
+            failedAttempts.remove(update.getVehicleId());
+        }
+        if (pending.size() >= flushSize && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.location.ingest.flush-interval-ms:1000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            while (!pending.isEmpty()) {
+                List<LocationUpdateRequest> batch = drain(VehicleLocationService.MAX_BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                long start = System.currentTimeMillis();
+                try {
+                    vehicleLocationService.applyLocationUpdates(batch);
+                } catch (RuntimeException e) {
+                    System.out.printf("Nie udalo sie zapisac paczki %d pozycji: %s%n", batch.size(), e.getMessage());
+                    failedFlushes.incrementAndGet();
+                    requeue(batch);
+                    break;
+                }
+                clearAttempts(batch);
+                recordFlush(batch.size(), System.currentTimeMillis() - start);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public IngestBufferStats getStats() {
+        long receivedCount = received.get();
+        long flushCount = flushes.get();
+        return new IngestBufferStats(
+                pending.size(),
+                receivedCount,
+                coalesced.get(),
+                rejected.get(),
+                receivedCount == 0 ? 0 : (double) coalesced.get() / receivedCount,
+                flushCount,
+                flushedUpdates.get(),
+                failedFlushes.get(),
+                requeuedUpdates.get(),
+                droppedUpdates.get(),
+                lastFlushMillis,
+                maxFlushMillis.get(),
+                flushCount == 0 ? 0 : (double) totalFlushMillis.get() / flushCount
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+    }
+
+    private List<LocationUpdateRequest> drain(int limit) {
+        List<LocationUpdateRequest> batch = new ArrayList<>(Math.min(limit, pending.size()));
+        Iterator<Long> iterator = pending.keySet().iterator();
+        while (iterator.hasNext() && batch.size() < limit) {
+            LocationUpdateRequest update = pending.remove(iterator.next());
+            if (update != null) {
+                batch.add(update);
+            }
+        }
+        return batch;
+    }
+
+    // paczka wraca do bufora na nastepny zrzut; pozycja, ktora w miedzyczasie przyszla nowsza, wygrywa.
+    // Pozycje po maxAttempts nieudanych zrzutach ida do bazy pojedynczo - odrzucane sa tylko te, ktore nadal
+    // nie przechodza (np. naruszenie ograniczenia), wiec jedna zla pozycja nie blokuje bufora na zawsze
+    private void requeue(List<LocationUpdateRequest> batch) {
+        List<LocationUpdateRequest> exhausted = new ArrayList<>();
+        for (LocationUpdateRequest update : batch) {
+            int attempts = failedAttempts.merge(update.getVehicleId(), 1, Integer::sum);
+            if (attempts >= maxAttempts) {
+                exhausted.add(update);
+            } else {
+                pending.merge(update.getVehicleId(), update, LocationIngestBuffer::newer);
+                requeuedUpdates.incrementAndGet();
+            }
+        }
+        for (LocationUpdateRequest update : exhausted) {
+            failedAttempts.remove(update.getVehicleId());
+            try {
+                vehicleLocationService.applyLocationUpdates(List.of(update));
+                flushedUpdates.incrementAndGet();
+            } catch (RuntimeException e) {
+                droppedUpdates.incrementAndGet();
+                System.out.printf("Odrzucono pozycje pojazdu %d po %d probach: %s%n",
+                        update.getVehicleId(), maxAttempts, e.getMessage());
+            }
+        }
+    }
+
+    private void clearAttempts(List<LocationUpdateRequest> batch) {
+        if (failedAttempts.isEmpty()) {
+            return;
+        }
+        for (LocationUpdateRequest update : batch) {
+            failedAttempts.remove(update.getVehicleId());
+        }
+    }
+
+    private static LocationUpdateRequest newer(LocationUpdateRequest current, LocationUpdateRequest incoming) {
+        return incoming.getTimestamp().isBefore(current.getTimestamp()) ? current : incoming;
+    }
+
+    private void recordFlush(int size, long millis) {
+        flushes.incrementAndGet();
+        flushedUpdates.addAndGet(size);
+        totalFlushMillis.addAndGet(millis);
+        maxFlushMillis.accumulateAndGet(millis, Math::max);
+        lastFlushMillis = millis;
+    }
+}
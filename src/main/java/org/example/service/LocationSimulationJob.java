@@ -0,0 +1,136 @@
+package org.example.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.dto.SimulationRunStats;
+import org.example.geo.ZoneGrid;
+import org.example.repository.VehicleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Symulacja ruchu wypozyczonych pojazdow - flota dzielona na paczki przetwarzane rownolegle,
+ * kazda paczka w osobnej transakcji. Strefy ladowane raz na przebieg.
+ */
+@Component
+public class LocationSimulationJob {
+    private final VehicleLocationService vehicleLocationService;
+    private final VehicleRepository vehicleRepository;
+    private final AllowedLocationIndex allowedLocationIndex;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService executor;
+    private final int threads;
+
+    @Value("${app.location.simulation.chunk-size:200}")
+    private int chunkSize;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong skippedRuns = new AtomicLong();
+    private final AtomicLong totalRunMillis = new AtomicLong();
+    private final AtomicLong maxRunMillis = new AtomicLong();
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile int lastRunVehicles;
+    private volatile int lastRunFailedVehicles;
+    private volatile long lastRunMillis;
+
+    public LocationSimulationJob(VehicleLocationService vehicleLocationService, VehicleRepository vehicleRepository,
+                                 AllowedLocationIndex allowedLocationIndex,
+                                 @Value("${app.location.simulation.threads:4}") int threads) {
+        this.vehicleLocationService = vehicleLocationService;
+        this.vehicleRepository = vehicleRepository;
+        this.allowedLocationIndex = allowedLocationIndex;
+        this.threads = Math.max(1, threads);
+        // staly pool: kazda paczka trzyma polaczenie z puli Hikari, wiec rownoleglosc i tak ogranicza liczba polaczen.
+        // Watki wirtualne nie wchodza w gre - parent Spring Boot ustawia maven.compiler.release=17 (java.version),
+        // co ma pierwszenstwo przed source/target 21 z pom.xml
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.threads, r -> {
+            Thread thread = new Thread(r, "location-simulation-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // false = poprzedni przebieg jeszcze trwa, ten zostal pominiety
+    public boolean run() {
+        if (!running.compareAndSet(false, true)) {
+            skippedRuns.incrementAndGet();
+            System.out.printf("Poprzednia symulacja lokalizacji jeszcze trwa - pomijam przebieg%n");
+            return false;
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long start = System.currentTimeMillis();
+            ZoneGrid zones = allowedLocationIndex.snapshot();
+            List<Long> ids = vehicleRepository.findIdsByRentedTrue();
+
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                futures.add(executor.submit(() -> vehicleLocationService.setRandomVehicleLocations(chunk, zones)));
+            }
+            int updated = 0;
+            for (Future<Integer> future : futures) {
+                updated += await(future);
+            }
+            recordRun(startedAt, ids.size(), ids.size() - updated, System.currentTimeMillis() - start);
+            return true;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public SimulationRunStats getStats() {
+        long runCount = runs.get();
+        return new SimulationRunStats(
+                running.get(),
+                runCount,
+                skippedRuns.get(),
+                lastRunStartedAt,
+                lastRunVehicles,
+                lastRunFailedVehicles,
+                lastRunMillis,
+                maxRunMillis.get(),
+                runCount == 0 ? 0 : (double) totalRunMillis.get() / runCount,
+                threads
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private int await(Future<Integer> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            System.out.printf("Nie udalo sie zaktualizowac paczki pojazdow: %s%n", cause.getMessage());
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    private void recordRun(LocalDateTime startedAt, int vehicles, int failed, long millis) {
+        runs.incrementAndGet();
+        totalRunMillis.addAndGet(millis);
+        maxRunMillis.accumulateAndGet(millis, Math::max);
+        lastRunStartedAt = startedAt;
+        lastRunVehicles = vehicles;
+        lastRunFailedVehicles = failed;
+        lastRunMillis = millis;
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.service;
 
+import org.example.dto.RentalSummary;
 import org.example.model.Rental;
 import org.example.model.User;
 import org.example.model.Vehicle;
@@ -19,11 +20,11 @@ public interface RentalService {
     Rental rent(Long vehicleId, Long userId);
     Rental returnRental(Long vehicleId, Long userId);
     List<Rental> findAll();
-    List<Rental> allActiveRentlas();
-    List<Rental> allRentalHistory();
-    List<Rental> historyByUserId(Long userId);
-    List<Rental> historyByVehicleId(Long vehicleId);
-    List<Rental> findActiveRentalByUserId(Long userId);
+    List<RentalSummary> allActiveRentlas();
+    List<RentalSummary> allRentalHistory();
+    List<RentalSummary> historyByUserId(Long userId);
+    List<RentalSummary> historyByVehicleId(Long vehicleId);
+    List<RentalSummary> findActiveRentalByUserId(Long userId);
     Rental findById(Long rentalId);
     Rental updatePaymentStatus(Long rentalId, String stripePaymentId, boolean isCheckoutSession);
     Rental findByStripeSessionId(String sessionId);
@@ -0,0 +1,139 @@
+package org.example.service;
+
+import org.example.dto.PageResponse;
+import org.example.dto.VehicleStatusFilter;
+import org.example.event.ReservationChangedEvent;
+import org.example.model.Reservation;
+import org.example.repository.ReservationRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Aktywne rezerwacje w pamieci: per pojazd mapa uporzadkowana po poczatku rezerwacji.
+ * Rezerwacje jednego pojazdu nie nachodza na siebie (pilnuje ograniczenie w bazie), wiec drzewo przedzialow
+ * sprowadza sie do tej mapy: [from, to) koliduje tylko z ostatnia rezerwacja zaczynajaca sie przed to - O(log n).
+ * Odczyty bez blokad, zapisy (zdarzenia, przeladowanie) pod monitorem.
+ */
+@Component
+public class ReservationIndex {
+    private final ReservationRepository reservationRepository;
+    private final VehicleStatusIndex vehicleStatusIndex;
+    private volatile Map<Long, ConcurrentSkipListMap<LocalDateTime, Slot>> byVehicle;
+    private volatile String fingerprint;
+
+    public ReservationIndex(ReservationRepository reservationRepository, VehicleStatusIndex vehicleStatusIndex) {
+        this.reservationRepository = reservationRepository;
+        this.vehicleStatusIndex = vehicleStatusIndex;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReservationChanged(ReservationChangedEvent event) {
+        if (byVehicle != null) {
+            apply(byVehicle, event.getReservation(), LocalDateTime.now());
+        }
+    }
+
+    public boolean isFree(Long vehicleId, LocalDateTime from, LocalDateTime to) {
+        ConcurrentSkipListMap<LocalDateTime, Slot> slots = index().get(vehicleId);
+        if (slots == null) {
+            return true;
+        }
+        Map.Entry<LocalDateTime, Slot> last = slots.lowerEntry(to);
+        return last == null || !last.getValue().end().isAfter(from);
+    }
+
+    // uzytkownik z rezerwacja obejmujaca chwile at, null = brak
+    public Long reservedBy(Long vehicleId, LocalDateTime at) {
+        ConcurrentSkipListMap<LocalDateTime, Slot> slots = index().get(vehicleId);
+        if (slots == null) {
+            return null;
+        }
+        Map.Entry<LocalDateTime, Slot> entry = slots.floorEntry(at);
+        return entry != null && entry.getValue().end().isAfter(at) ? entry.getValue().userId() : null;
+    }
+
+    // pojazdy bez rezerwacji w [from, to), rosnaco po id; kandydaci z bitmapy statusow, bez zapytania do bazy
+    public PageResponse<Long> findAvailable(LocalDateTime from, LocalDateTime to, String type, Long after, int limit) {
+        // przedzial juz trwa - pojazd musi byc teraz wolny; zwrot aktualnego wypozyczenia jest nieznany
+        Boolean rented = from.isAfter(LocalDateTime.now()) ? null : false;
+        VehicleStatusFilter filter = new VehicleStatusFilter(rented, false, null, type);
+        List<Long> ids = new ArrayList<>(Math.min(limit + 1, 1024));
+        vehicleStatusIndex.forEachMatching(filter, after != null ? after : 0, id -> {
+            if (isFree(id, from, to)) {
+                ids.add(id);
+            }
+            return ids.size() <= limit;
+        });
+        boolean hasMore = ids.size() > limit;
+        if (hasMore) {
+            ids.remove(ids.size() - 1);
+        }
+        Long nextCursor = hasMore ? ids.get(ids.size() - 1) : null;
+        return new PageResponse<>(ids, limit, hasMore, nextCursor);
+    }
+
+    // przeladowanie, gdy rezerwacje zmienily sie na innym wezle; przy okazji usuwa zakonczone
+    public synchronized boolean refreshIfChanged() {
+        String current = reservationRepository.fingerprint();
+        if (byVehicle != null && current.equals(fingerprint)) {
+            prune(LocalDateTime.now());
+            return false;
+        }
+        load(current);
+        return true;
+    }
+
+    private Map<Long, ConcurrentSkipListMap<LocalDateTime, Slot>> index() {
+        Map<Long, ConcurrentSkipListMap<LocalDateTime, Slot>> current = byVehicle;
+        if (current == null) {
+            synchronized (this) {
+                if (byVehicle == null) {
+                    load(reservationRepository.fingerprint());
+                }
+                current = byVehicle;
+            }
+        }
+        return current;
+    }
+
+    private void load(String currentFingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ConcurrentSkipListMap<LocalDateTime, Slot>> loaded = new ConcurrentHashMap<>();
+        for (Reservation reservation : reservationRepository.findActiveEndingAfter(now)) {
+            apply(loaded, reservation, now);
+        }
+        fingerprint = currentFingerprint;
+        byVehicle = loaded;
+    }
+
+    private static void apply(Map<Long, ConcurrentSkipListMap<LocalDateTime, Slot>> index, Reservation reservation,
+                              LocalDateTime now) {
+        ConcurrentSkipListMap<LocalDateTime, Slot> slots = index.get(reservation.getVehicleId());
+        if (slots != null) {
+            slots.values().removeIf(slot -> slot.reservationId() == reservation.getId());
+        }
+        if (reservation.isCancelled() || !reservation.getEndTime().isAfter(now)) {
+            if (slots != null && slots.isEmpty()) {
+                index.remove(reservation.getVehicleId());
+            }
+            return;
+        }
+        index.computeIfAbsent(reservation.getVehicleId(), id -> new ConcurrentSkipListMap<>())
+                .put(reservation.getStartTime(), new Slot(reservation.getId(), reservation.getUserId(), reservation.getEndTime()));
+    }
+
+    private void prune(LocalDateTime now) {
+        byVehicle.values().forEach(slots -> slots.values().removeIf(slot -> !slot.end().isAfter(now)));
+        byVehicle.values().removeIf(Map::isEmpty);
+    }
+
+    private record Slot(long reservationId, long userId, LocalDateTime end) {
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.service;
+
+import org.example.dto.PageResponse;
+import org.example.model.Reservation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ReservationService {
+    // IllegalArgumentException - bledne dane, IllegalStateException - termin zajety
+    Reservation create(Long vehicleId, Long userId, LocalDateTime startTime, LocalDateTime endTime);
+    Reservation cancel(Long reservationId);
+    Reservation findById(Long reservationId);
+    List<Reservation> findByUserId(Long userId);
+    List<Reservation> findByVehicleId(Long vehicleId);
+    PageResponse<Long> findAvailableVehicles(LocalDateTime from, LocalDateTime to, String type, Long after, int limit);
+}
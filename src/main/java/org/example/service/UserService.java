@@ -1,5 +1,6 @@
 package org.example.service;
 
+import org.example.dto.UserSummary;
 import org.example.model.User;
 import java.util.List;
 
@@ -18,8 +19,9 @@ public interface UserService {
      void deleteById(Long id);
      void deleteUserByLogin(String login);
      User updateUser(Long id, User userDetails);
-     List<User> findAllDeletedUsers();
-     List<User> findAllActiveUsers();
+     List<UserSummary> findAllDeletedUsers();
+     List<UserSummary> findAllActiveUsers();
+     List<UserSummary> findAllSummaries();
 
     String getAllRoles(User user);
     String getPrimaryRole(User user);
@@ -0,0 +1,245 @@
+package org.example.service;
+
+import org.example.dto.VehicleSuggestion;
+import org.example.event.VehicleChangedEvent;
+import org.example.model.Vehicle;
+import org.example.repository.VehicleRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Indeks odwrocony do podpowiedzi: posortowany slownik terminow (marka, slowa modelu, tablica) -> id pojazdow.
+ * Zapytanie o prefiks to wycinek slownika, wiec nie zalezy od rozmiaru floty, tylko od liczby trafien.
+ * Zapisuje jeden watek naraz, odczyty sa bez blokad.
+ */
+@Component
+public class VehicleAutocompleteIndex {
+    private static final int MAX_COUNTED_TERMS = 256;
+    private static final String SEPARATORS = "[\\s\\-_/.,]+";
+    private final VehicleRepository vehicleRepository;
+    private final ConcurrentSkipListMap<String, Set<Long>> terms = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private final Object loadLock = new Object();
+    // id zmienione zdarzeniami w trakcie ladowania - odczyt z bazy jest dla nich starszy
+    private volatile Set<Long> touchedDuringLoad;
+
+    public VehicleAutocompleteIndex(VehicleRepository vehicleRepository) {
+        this.vehicleRepository = vehicleRepository;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        if (loaded || touchedDuringLoad != null) {
+            apply(event.getVehicle(), true);
+        }
+    }
+
+    // kazde slowo zapytania musi byc prefiksem jakiegos terminu pojazdu; kandydatow wyznacza najrzadsze slowo.
+    // Tablica jest indeksowana bez separatorow, wiec "WA 123" / "WA-123" sprawdzamy tez jako jedno slowo "wa123"
+    public List<VehicleSuggestion> suggest(String query, int limit, boolean availableOnly) {
+        ensureLoaded();
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> seen = new HashSet<>();
+        List<VehicleSuggestion> result = new ArrayList<>(limit);
+        collect(words, limit, availableOnly, seen, result);
+        if (words.size() > 1 && result.size() < limit) {
+            collect(List.of(String.join("", words)), limit, availableOnly, seen, result);
+        }
+        return result;
+    }
+
+    private void collect(List<String> words, int limit, boolean availableOnly, Set<Long> seen, List<VehicleSuggestion> result) {
+        String driver = words.get(words.size() - 1);
+        long driverPostings = Long.MAX_VALUE;
+        for (String word : words.size() > 1 ? words : List.<String>of()) {
+            long count = countPostings(word, driverPostings);
+            if (count < driverPostings) {
+                driver = word;
+                driverPostings = count;
+            }
+        }
+        List<String> others = new ArrayList<>(words);
+        others.remove(driver);
+
+        for (Set<Long> postings : prefixRange(driver).values()) {
+            for (Long id : postings) {
+                Entry entry = entries.get(id);
+                if (entry == null || (availableOnly && entry.rented) || !entry.matchesAll(others) || !seen.add(id)) {
+                    continue;
+                }
+                result.add(new VehicleSuggestion(id, entry.brand, entry.model, entry.plate, entry.rented));
+                if (result.size() == limit) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // liczenie przerywane po przekroczeniu dotychczasowego minimum albo po MAX_COUNTED_TERMS terminach (krotkie prefiksy tablic)
+    private long countPostings(String prefix, long limit) {
+        long count = 0;
+        int visited = 0;
+        for (Set<Long> postings : prefixRange(prefix).values()) {
+            count += postings.size();
+            if (count >= limit || ++visited == MAX_COUNTED_TERMS) {
+                return visited == MAX_COUNTED_TERMS ? Long.MAX_VALUE - 1 : count;
+            }
+        }
+        return count;
+    }
+
+    private Map<String, Set<Long>> prefixRange(String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void apply(Vehicle vehicle, boolean fromEvent) {
+        if (vehicle.getId() == null) {
+            return;
+        }
+        Entry updated = vehicle.isDeleted() ? null : new Entry(vehicle);
+        // wiekszosc zdarzen to zmiany pozycji - bez zmian w tekscie nie ma czego indeksowac
+        if (Objects.equals(entries.get(vehicle.getId()), updated) && loaded && touchedDuringLoad == null) {
+            return;
+        }
+        synchronized (this) {
+            if (fromEvent && touchedDuringLoad != null) {
+                touchedDuringLoad.add(vehicle.getId());
+            } else if (!fromEvent && touchedDuringLoad.contains(vehicle.getId())) {
+                return;
+            }
+            Entry previous = updated == null ? entries.remove(vehicle.getId()) : entries.put(vehicle.getId(), updated);
+            Set<String> oldTerms = previous != null ? previous.terms : Set.of();
+            Set<String> newTerms = updated != null ? updated.terms : Set.of();
+            for (String term : oldTerms) {
+                if (!newTerms.contains(term)) {
+                    Set<Long> postings = terms.get(term);
+                    if (postings != null) {
+                        postings.remove(vehicle.getId());
+                        if (postings.isEmpty()) {
+                            terms.remove(term);
+                        }
+                    }
+                }
+            }
+            for (String term : newTerms) {
+                if (!oldTerms.contains(term)) {
+                    terms.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(vehicle.getId());
+                }
+            }
+        }
+    }
+
+    // indeks jest widoczny dopiero po pelnym zaladowaniu - czytelnicy czekaja na loadLock,
+    // a zdarzenia w tym czasie sa stosowane od razu (monitor this) i maja pierwszenstwo przed odczytem z bazy
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (loaded) {
+                return;
+            }
+            synchronized (this) {
+                touchedDuringLoad = new HashSet<>();
+            }
+            try {
+                vehicleRepository.forEachVehicle(vehicle -> apply(vehicle, false));
+                loaded = true;
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    entries.clear();
+                    terms.clear();
+                }
+                throw e;
+            } finally {
+                synchronized (this) {
+                    touchedDuringLoad = null;
+                }
+            }
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split(SEPARATORS)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static final class Entry {
+        private final String brand;
+        private final String model;
+        private final String plate;
+        private final boolean rented;
+        private final Set<String> terms;
+
+        private Entry(Vehicle vehicle) {
+            this.brand = vehicle.getBrand();
+            this.model = vehicle.getModel();
+            this.plate = vehicle.getPlate();
+            this.rented = vehicle.isRented();
+            Set<String> collected = new LinkedHashSet<>();
+            collected.addAll(tokenize(brand));
+            collected.addAll(tokenize(model));
+            if (plate != null) {
+                collected.add(plate.toLowerCase(Locale.ROOT).replaceAll(SEPARATORS, ""));
+            }
+            this.terms = Set.copyOf(collected);
+        }
+
+        private boolean matchesAll(List<String> prefixes) {
+            for (String prefix : prefixes) {
+                boolean matched = false;
+                for (String term : terms) {
+                    if (term.startsWith(prefix)) {
+                        matched = true;
+                        break;
+                    }
+                }
+                if (!matched) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry other)) {
+                return false;
+            }
+            return rented == other.rented && Objects.equals(brand, other.brand)
+                    && Objects.equals(model, other.model) && Objects.equals(plate, other.plate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(brand, model, plate, rented);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.example.service;
+
+import org.example.dto.VehicleFacets;
+import org.example.event.VehicleChangedEvent;
+import org.example.model.Vehicle;
+import org.example.repository.VehicleRepository;
+import org.hibernate.Hibernate;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Liczniki facet dostepnych pojazdow (marka, typ, rocznik, cena) utrzymywane w pamieci.
+ * Kazde zdarzenie zapisu pojazdu (utworzenie, usuniecie, wypozyczenie, zwrot) przenosi
+ * jego wklad z poprzedniego klucza na nowy, zamiast GROUP BY po calej tabeli.
+ */
+@Component
+public class VehicleFacetCounter {
+    private static final int YEAR_BUCKET_SIZE = 5;
+    private static final int[] PRICE_BOUNDS = {100, 200, 300, 500, 1000};
+
+    private final VehicleRepository vehicleRepository;
+    private final Object loadLock = new Object();
+    // liczniki podmieniane w calosci po zaladowaniu; zmieniane tylko pod monitorem this
+    private Counts counts = new Counts();
+    private volatile boolean loaded;
+    // zdarzenia z commitow w trakcie skanu - nakladane na wynik skanu przed podmiana, null poza ladowaniem
+    private List<Vehicle> pendingDuringLoad;
+    // null = liczniki zmienione od ostatniego odczytu
+    private volatile VehicleFacets snapshot;
+
+    public VehicleFacetCounter(VehicleRepository vehicleRepository) {
+        this.vehicleRepository = vehicleRepository;
+    }
+
+    // przed CatalogVersionTracker - nowy ETag nie moze trafic do klienta ze starymi licznikami
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onVehicleChanged(VehicleChangedEvent event) {
+        if (loaded) {
+            if (counts.apply(event.getVehicle())) {
+                snapshot = null;
+            }
+        } else if (pendingDuringLoad != null) {
+            pendingDuringLoad.add(event.getVehicle());
+        }
+    }
+
+    public VehicleFacets getFacets() {
+        VehicleFacets current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        ensureLoaded();
+        return buildSnapshot();
+    }
+
+    // skan do lokalnych licznikow bez monitora this - zapisy (zdarzenia) nie czekaja na koniec skanu
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (loaded) {
+                return;
+            }
+            synchronized (this) {
+                pendingDuringLoad = new ArrayList<>();
+            }
+            Counts fresh = new Counts();
+            try {
+                vehicleRepository.forEachVehicle(fresh::apply);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pendingDuringLoad = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                for (Vehicle vehicle : pendingDuringLoad) {
+                    fresh.apply(vehicle);
+                }
+                pendingDuringLoad = null;
+                counts = fresh;
+                snapshot = null;
+                loaded = true;
+            }
+        }
+    }
+
+    private synchronized VehicleFacets buildSnapshot() {
+        if (snapshot == null) {
+            Map<String, Long> yearLabels = new LinkedHashMap<>();
+            new TreeMap<>(counts.yearBuckets).forEach((bucket, count) ->
+                    yearLabels.put(bucket + "-" + (bucket + YEAR_BUCKET_SIZE - 1), count));
+            Map<String, Long> priceLabels = new LinkedHashMap<>();
+            new TreeMap<>(counts.priceBuckets).forEach((bucket, count) -> priceLabels.put(priceLabel(bucket), count));
+            snapshot = new VehicleFacets(counts.counted.size(),
+                    Collections.unmodifiableMap(new TreeMap<>(counts.brands)),
+                    Collections.unmodifiableMap(new TreeMap<>(counts.types)),
+                    Collections.unmodifiableMap(yearLabels),
+                    Collections.unmodifiableMap(priceLabels));
+        }
+        return snapshot;
+    }
+
+    // przedzial ceny jako indeks w PRICE_BOUNDS
+    private static int bucketOfPrice(int price) {
+        int bucket = 0;
+        while (bucket < PRICE_BOUNDS.length && price >= PRICE_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static String priceLabel(int bucket) {
+        int from = bucket == 0 ? 0 : PRICE_BOUNDS[bucket - 1];
+        return bucket == PRICE_BOUNDS.length ? from + "+" : from + "-" + (PRICE_BOUNDS[bucket] - 1);
+    }
+
+    private static final class Counts {
+        // wklad kazdego liczonego pojazdu - potrzebny, zeby odjac go przy zmianie
+        private final Map<Long, FacetKey> counted = new HashMap<>();
+        private final Map<String, Long> brands = new HashMap<>();
+        private final Map<String, Long> types = new HashMap<>();
+        private final Map<Integer, Long> yearBuckets = new HashMap<>();
+        private final Map<Integer, Long> priceBuckets = new HashMap<>();
+
+        // false = wklad pojazdu sie nie zmienil
+        private boolean apply(Vehicle vehicle) {
+            if (vehicle.getId() == null) {
+                return false;
+            }
+            FacetKey key = vehicle.isRented() || vehicle.isDeleted() ? null : FacetKey.of(vehicle);
+            FacetKey previous = key != null ? counted.put(vehicle.getId(), key) : counted.remove(vehicle.getId());
+            if (key == null ? previous == null : key.equals(previous)) {
+                return false;
+            }
+            if (previous != null) {
+                add(previous, -1);
+            }
+            if (key != null) {
+                add(key, 1);
+            }
+            return true;
+        }
+
+        private void add(FacetKey key, long delta) {
+            adjust(brands, key.brand(), delta);
+            adjust(types, key.type(), delta);
+            adjust(yearBuckets, key.yearBucket(), delta);
+            adjust(priceBuckets, key.priceBucket(), delta);
+        }
+
+        private static <K> void adjust(Map<K, Long> counts, K key, long delta) {
+            counts.compute(key, (k, count) -> {
+                long updated = (count != null ? count : 0) + delta;
+                return updated > 0 ? updated : null;
+            });
+        }
+    }
+
+    private record FacetKey(String brand, String type, int yearBucket, int priceBucket) {
+        static FacetKey of(Vehicle vehicle) {
+            String type = vehicle.getType() != null ? vehicle.getType() : Hibernate.getClass(vehicle).getSimpleName();
+            String brand = vehicle.getBrand() != null ? vehicle.getBrand() : "";
+            return new FacetKey(brand, type, Math.floorDiv(vehicle.getYear(), YEAR_BUCKET_SIZE) * YEAR_BUCKET_SIZE,
+                    bucketOfPrice(vehicle.getPrice()));
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.example.dto.VehicleImportError;
+import org.example.dto.VehicleImportReport;
+import org.example.dto.VehicleImportRow;
+import org.example.model.Car;
+import org.example.model.Motorcycle;
+import org.example.model.Vehicle;
+import org.example.repository.VehicleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strumieniowy import floty z CSV lub NDJSON. Wiersze sa walidowane w trakcie czytania,
+ * poprawne trafiaja do paczek zapisywanych w osobnych transakcjach (wstawianie paczkami JDBC).
+ * Postep i bledy per wiersz dostepne pod id importu rowniez w trakcie jego trwania.
+ */
+@Service
+public class VehicleImportService {
+    public enum Format { CSV, NDJSON }
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_KEPT_IMPORTS = 20;
+    private static final Set<String> TYPES = Set.of("Car", "Motorcycle", "Vehicle");
+
+    private final VehicleRepository vehicleRepository;
+    private final ObjectReader rowReader;
+    private final Map<String, ImportJob> imports = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+            return size() > MAX_KEPT_IMPORTS;
+        }
+    };
+
+    @Value("${app.vehicle.import.chunk-size:500}")
+    private int chunkSize;
+
+    public VehicleImportService(VehicleRepository vehicleRepository, ObjectMapper objectMapper) {
+        this.vehicleRepository = vehicleRepository;
+        this.rowReader = objectMapper.readerFor(VehicleImportRow.class);
+    }
+
+    // czyta strumien do konca w watku wywolujacym; importId == null -> nadawany losowo
+    public VehicleImportReport importVehicles(String importId, Format format, InputStream input) {
+        ImportJob job = register(importId != null ? importId : UUID.randomUUID().toString(), format);
+        long start = System.currentTimeMillis();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            readRows(job, reader);
+            job.status = "COMPLETED";
+        } catch (IOException | RuntimeException e) {
+            job.status = "FAILED";
+            job.addError(new VehicleImportError(0, null, "Import przerwany: " + e.getMessage()));
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+        System.out.printf("Import pojazdow %s (%s): %d wierszy, zapisano %d, bledy %d, %d ms%n",
+                job.importId, job.status, job.processed.get(), job.imported.get(), job.failed.get(),
+                System.currentTimeMillis() - start);
+        return job.toReport();
+    }
+
+    public synchronized VehicleImportReport getReport(String importId) {
+        ImportJob job = imports.get(importId);
+        return job != null ? job.toReport() : null;
+    }
+
+    public synchronized List<VehicleImportReport> getReports() {
+        List<VehicleImportReport> reports = new ArrayList<>(imports.size());
+        for (ImportJob job : imports.values()) {
+            reports.add(job.toReport());
+        }
+        return reports;
+    }
+
+    private synchronized ImportJob register(String importId, Format format) {
+        ImportJob previous = imports.get(importId);
+        if (previous != null && "RUNNING".equals(previous.status)) {
+            throw new IllegalStateException("Import o id " + importId + " już trwa!");
+        }
+        ImportJob job = new ImportJob(importId, format);
+        imports.remove(importId);
+        imports.put(importId, job);
+        return job;
+    }
+
+    private void readRows(ImportJob job, BufferedReader reader) throws IOException {
+        Set<String> seenPlates = new HashSet<>();
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        Map<String, Integer> csvColumns = null;
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (job.format == Format.CSV && csvColumns == null) {
+                csvColumns = csvHeader(line);
+                continue;
+            }
+            job.processed.incrementAndGet();
+            VehicleImportRow row;
+            try {
+                row = job.format == Format.CSV ? csvRow(csvColumns, line) : rowReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                job.fail(lineNumber, null, "Nieprawidłowy format wiersza: " + e.getOriginalMessage());
+                continue;
+            } catch (IllegalArgumentException e) {
+                job.fail(lineNumber, null, "Nieprawidłowy format wiersza: " + e.getMessage());
+                continue;
+            }
+            String error = validate(row);
+            if (error == null && !seenPlates.add(row.getPlate())) {
+                error = "Duplikat tablicy rejestracyjnej w pliku";
+            }
+            if (error != null) {
+                job.fail(lineNumber, row.getPlate(), error);
+                continue;
+            }
+            chunk.add(new PendingRow(lineNumber, row));
+            if (chunk.size() >= chunkSize) {
+                writeChunk(job, chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(job, chunk);
+        }
+    }
+
+    private void writeChunk(ImportJob job, List<PendingRow> chunk) {
+        List<String> plates = new ArrayList<>(chunk.size());
+        for (PendingRow pending : chunk) {
+            plates.add(pending.row().getPlate());
+        }
+        Set<String> existing = vehicleRepository.findExistingPlates(plates);
+        List<PendingRow> rows = new ArrayList<>(chunk.size());
+        List<Vehicle> vehicles = new ArrayList<>(chunk.size());
+        for (PendingRow pending : chunk) {
+            if (existing.contains(pending.row().getPlate())) {
+                job.fail(pending.line(), pending.row().getPlate(), "Pojazd o tej tablicy rejestracyjnej już istnieje");
+            } else {
+                rows.add(pending);
+                vehicles.add(toVehicle(pending.row()));
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            vehicleRepository.insertAll(vehicles);
+            job.imported.addAndGet(vehicles.size());
+        } catch (RuntimeException e) {
+            // paczka wycofana w calosci (np. tablica dodana rownolegle) - wiersz po wierszu, zeby wskazac winne
+            for (PendingRow pending : rows) {
+                try {
+                    vehicleRepository.save(toVehicle(pending.row()));
+                    job.imported.incrementAndGet();
+                } catch (RuntimeException rowError) {
+                    job.fail(pending.line(), pending.row().getPlate(), describe(rowError));
+                }
+            }
+        }
+    }
+
+    private static String validate(VehicleImportRow row) {
+        if (row.getType() == null) {
+            row.setType("Vehicle");
+        }
+        if (!TYPES.contains(row.getType())) {
+            return "Nieznany typ pojazdu: " + row.getType();
+        }
+        if (isBlank(row.getBrand()) || isBlank(row.getModel()) || isBlank(row.getPlate())) {
+            return "Marka, model i tablica rejestracyjna są wymagane";
+        }
+        row.setPlate(row.getPlate().trim());
+        if (row.getYear() == null || row.getYear() < 1886 || row.getYear() > Year.now().getValue() + 1) {
+            return "Nieprawidłowy rocznik: " + row.getYear();
+        }
+        if (row.getPrice() == null || row.getPrice() <= 0) {
+            return "Cena musi być dodatnia";
+        }
+        return null;
+    }
+
+    private static Vehicle toVehicle(VehicleImportRow row) {
+        Map<String, String> attributes = row.getAttributes() != null ? row.getAttributes() : new HashMap<>();
+        return switch (row.getType()) {
+            case "Car" -> new Car(row.getBrand(), row.getModel(), row.getYear(), row.getPrice(), row.getPlate(), attributes);
+            case "Motorcycle" -> new Motorcycle(row.getBrand(), row.getModel(), row.getYear(), row.getPrice(),
+                    row.getLicenceCategory(), row.getPlate(), attributes);
+            default -> new Vehicle(row.getType(), row.getBrand(), row.getModel(), row.getYear(), row.getPrice(), row.getPlate(), attributes);
+        };
+    }
+
+    private static String describe(RuntimeException e) {
+        if (e instanceof DataIntegrityViolationException) {
+            return "Naruszenie ograniczenia bazy (np. duplikat tablicy rejestracyjnej)";
+        }
+        return NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+    }
+
+    // naglowek CSV: nazwy kolumn jak pola VehicleImportRow, kolejnosc dowolna
+    private static Map<String, Integer> csvHeader(String line) {
+        List<String> names = splitCsv(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("plate")) {
+            throw new IllegalArgumentException("Nagłówek CSV musi zawierać kolumnę plate");
+        }
+        return columns;
+    }
+
+    private static VehicleImportRow csvRow(Map<String, Integer> columns, String line) {
+        List<String> values = splitCsv(line);
+        VehicleImportRow row = new VehicleImportRow();
+        row.setType(column(columns, values, "type"));
+        row.setBrand(column(columns, values, "brand"));
+        row.setModel(column(columns, values, "model"));
+        row.setYear(parseInt(column(columns, values, "year")));
+        row.setPrice(parseInt(column(columns, values, "price")));
+        row.setPlate(column(columns, values, "plate"));
+        row.setLicenceCategory(column(columns, values, "licencecategory"));
+        String attributes = column(columns, values, "attributes");
+        if (attributes != null) {
+            // kolumna attributes: klucz=wartosc;klucz=wartosc
+            Map<String, String> parsed = new HashMap<>();
+            for (String pair : attributes.split(";")) {
+                int eq = pair.indexOf('=');
+                if (eq <= 0) {
+                    throw new IllegalArgumentException("atrybut bez '=': " + pair);
+                }
+                parsed.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+            }
+            row.setAttributes(parsed);
+        }
+        return row;
+    }
+
+    private static String column(Map<String, Integer> columns, List<String> values, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer parseInt(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("nieprawidłowa liczba: " + value);
+        }
+    }
+
+    // pola w cudzyslowach moga zawierac przecinki, "" to cudzyslow; rekord musi miescic sie w jednej linii
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("niezamknięty cudzysłów");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record PendingRow(long line, VehicleImportRow row) {
+    }
+
+    private static final class ImportJob {
+        private final String importId;
+        private final Format format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<VehicleImportError> errors = new ArrayList<>();
+        private boolean errorsTruncated;
+        private volatile String status = "RUNNING";
+        private volatile LocalDateTime finishedAt;
+
+        private ImportJob(String importId, Format format) {
+            this.importId = importId;
+            this.format = format;
+        }
+
+        private void fail(long line, String plate, String message) {
+            failed.incrementAndGet();
+            addError(new VehicleImportError(line, plate, message));
+        }
+
+        private synchronized void addError(VehicleImportError error) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        private synchronized VehicleImportReport toReport() {
+            return new VehicleImportReport(importId, format.name(), status, startedAt, finishedAt,
+                    processed.get(), imported.get(), failed.get(), new ArrayList<>(errors),
+                    errorsTruncated);
+        }
+    }
+}
@@ -1,27 +1,60 @@
 package org.example.service;
 
+import org.example.dto.LocationUpdateRequest;
+import org.example.dto.LocationUpdateStatus;
+import org.example.event.LocationTransitionEvent;
+import org.example.geo.ZoneGrid;
 import org.example.model.AllowedLocation;
 import org.example.model.Vehicle;
 import org.example.repository.AllowedLocationRepository;
 import org.example.repository.VehicleRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @Transactional
 public class VehicleLocationService {
     private final VehicleRepository vehicleRepository;
     private final AllowedLocationRepository allowedLocationRepository;
+    private final AllowedLocationIndex allowedLocationIndex;
+    private final LocationHistoryService locationHistoryService;
+    private final ApplicationEventPublisher eventPublisher;
+    public static final int MAX_BATCH_SIZE = 1000;
+    private static final BigDecimal MAX_LATITUDE = BigDecimal.valueOf(90);
+    private static final BigDecimal MAX_LONGITUDE = BigDecimal.valueOf(180);
+    // dopuszczalne wyprzedzenie zegara urzadzenia; pozycja "z przyszlosci" blokowalaby kolejne jako STALE
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(2);
+    // zakladka przebiegu przyrostowego - zapis przyjety tuz przed startem przebiegu moze byc jeszcze niezatwierdzony
+    private static final Duration PASS_OVERLAP = Duration.ofSeconds(10);
+
     private final Random random = new Random();
+    // stan przyrostowego przebiegu per shard; shard nowo przejety od innego wezla dostaje pelny przebieg
+    private final Map<Integer, LocalDateTime> lastShardPass = new HashMap<>();
+    private long lastShardZoneVersion = -1;
 
-    public VehicleLocationService(VehicleRepository vehicleRepository, AllowedLocationRepository allowedLocationRepository) {
+    public VehicleLocationService(VehicleRepository vehicleRepository, AllowedLocationRepository allowedLocationRepository,
+                                  AllowedLocationIndex allowedLocationIndex, LocationHistoryService locationHistoryService,
+                                  ApplicationEventPublisher eventPublisher) {
         this.vehicleRepository = vehicleRepository;
         this.allowedLocationRepository = allowedLocationRepository;
+        this.allowedLocationIndex = allowedLocationIndex;
+        this.locationHistoryService = locationHistoryService;
+        this.eventPublisher = eventPublisher;
     }
 
     public boolean isVehicleAtAllowedLocation(Long vehicleId) {
@@ -29,31 +62,69 @@ public class VehicleLocationService {
         if (vehicle == null || vehicle.getLatitude() == null || vehicle.getLongitude() == null) {
             return  false;
         }
-        List<AllowedLocation> allowedLocations = allowedLocationRepository.findAllActive();
-
-        for (AllowedLocation location : allowedLocations) {
-            double distance = calculateDistance(
-                    vehicle.getLatitude(), vehicle.getLongitude(),location.getLatitude(), location.getLongitude()
-            );
-            if (distance <= location.getRadiusMeters()) {
-                return true;
-            }
-        }
-        return false;
+        return allowedLocationIndex.isAllowed(vehicle.getLatitude(), vehicle.getLongitude());
     }
     public Vehicle setVehicleLocation(Long vehicleId, BigDecimal latitude, BigDecimal longitude, String locationName) {
-        Vehicle vehicle = vehicleRepository.findById(vehicleId);
+        Vehicle vehicle = vehicleRepository.findByIdForUpdate(vehicleId);
         if(vehicle == null) {
             throw new IllegalArgumentException("Pojazd nie został znaleziony!");
         }
         boolean isAtAllowedLocation = isLocationAllowed(latitude,longitude);
-        vehicle.updateLocation(latitude,longitude,locationName,isAtAllowedLocation);
+        return applyLocation(vehicle, latitude, longitude, locationName, isAtAllowedLocation, LocalDateTime.now());
+    }
+
+    // jedna transakcja na paczke - UPDATE-y ida w batchach JDBC (hibernate.jdbc.batch_size)
+    public List<LocationUpdateStatus> applyLocationUpdates(List<LocationUpdateRequest> updates) {
+        if (updates.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Maksymalny rozmiar paczki to " + MAX_BATCH_SIZE + " pozycji!");
+        }
+        List<Long> ids = new ArrayList<>(updates.size());
+        for (LocationUpdateRequest update : updates) {
+            if (update != null && update.getVehicleId() != null) {
+                ids.add(update.getVehicleId());
+            }
+        }
+        Map<Long, Vehicle> vehicles = new HashMap<>();
+        for (Vehicle vehicle : vehicleRepository.findByIdInForUpdate(ids)) {
+            vehicles.put(vehicle.getId(), vehicle);
+        }
 
-        return vehicleRepository.save(vehicle);
+        List<LocationUpdateStatus> statuses = new ArrayList<>(updates.size());
+        for (LocationUpdateRequest update : updates) {
+            statuses.add(applyLocationUpdate(update, vehicles));
+        }
+        return statuses;
+    }
+
+    private LocationUpdateStatus applyLocationUpdate(LocationUpdateRequest update, Map<Long, Vehicle> vehicles) {
+        if (update == null || !isValid(update)) {
+            return LocationUpdateStatus.of(update != null ? update.getVehicleId() : null, LocationUpdateStatus.INVALID);
+        }
+        Vehicle vehicle = vehicles.get(update.getVehicleId());
+        if (vehicle == null || vehicle.isDeleted()) {
+            return LocationUpdateStatus.of(update.getVehicleId(), LocationUpdateStatus.NOT_FOUND);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime timestamp = update.getTimestamp() != null ? update.getTimestamp() : now;
+        if (timestamp.isAfter(now.plus(MAX_CLOCK_SKEW))) {
+            return LocationUpdateStatus.of(update.getVehicleId(), LocationUpdateStatus.INVALID);
+        }
+        if (vehicle.getLastLocationUpdate() != null && timestamp.isBefore(vehicle.getLastLocationUpdate())) {
+            return LocationUpdateStatus.of(update.getVehicleId(), LocationUpdateStatus.STALE);
+        }
+        boolean isAtAllowedLocation = isLocationAllowed(update.getLatitude(), update.getLongitude());
+        applyLocation(vehicle, update.getLatitude(), update.getLongitude(), update.getLocationName(), isAtAllowedLocation, timestamp);
+        return new LocationUpdateStatus(vehicle.getId(), LocationUpdateStatus.OK, isAtAllowedLocation);
+    }
+
+    private boolean isValid(LocationUpdateRequest update) {
+        return update.getVehicleId() != null
+                && update.getLatitude() != null && update.getLatitude().abs().compareTo(MAX_LATITUDE) <= 0
+                && update.getLongitude() != null && update.getLongitude().abs().compareTo(MAX_LONGITUDE) <= 0;
     }
 
     public Vehicle setRandomVehicleLocation(Long vehicleId) {
-        Vehicle vehicle = vehicleRepository.findById(vehicleId);
+        Vehicle vehicle = vehicleRepository.findByIdForUpdate(vehicleId);
         if (vehicle == null) {
             return  null;
         }
@@ -63,78 +134,128 @@ public class VehicleLocationService {
         String locationName = "Losowa lokalizacja " + random.nextInt(1000);
         boolean isAtAllowedLocation = isLocationAllowed(latitude,longitude);
 
-        vehicle.updateLocation(latitude,longitude,locationName,isAtAllowedLocation);
-
-        return vehicleRepository.save(vehicle);
+        return applyLocation(vehicle, latitude, longitude, locationName, isAtAllowedLocation, LocalDateTime.now());
     }
-    private boolean isLocationAllowed(BigDecimal latitude, BigDecimal longitude) {
-        List<AllowedLocation> allowedLocations = allowedLocationRepository.findAllActive();
-
-        for(AllowedLocation location : allowedLocations) {
-            double distance = calculateDistance(latitude,longitude, location.getLatitude(), location.getLongitude());
-            if(distance <= location.getRadiusMeters()) {
-                return true;
-            }
+    // paczka symulacji w jednej transakcji; strefy podane z zewnatrz, zeby nie budowac ich per pojazd
+    public int setRandomVehicleLocations(List<Long> vehicleIds, ZoneGrid zones) {
+        ThreadLocalRandom threadRandom = ThreadLocalRandom.current();
+        int updated = 0;
+        for (Vehicle vehicle : vehicleRepository.findByIdInForUpdate(vehicleIds)) {
+            BigDecimal latitude = generateRandomCoordinate(threadRandom, new BigDecimal("52.2292"), new BigDecimal("0.1"));
+            BigDecimal longitude = generateRandomCoordinate(threadRandom, new BigDecimal("21.0122"), new BigDecimal("0.1"));
+            String locationName = "Losowa lokalizacja " + threadRandom.nextInt(1000);
+            boolean isAtAllowedLocation = zones.anyContains(latitude.doubleValue(), longitude.doubleValue());
+            applyLocation(vehicle, latitude, longitude, locationName, isAtAllowedLocation, LocalDateTime.now());
+            updated++;
         }
-        return false;
+        return updated;
     }
-
-    private double calculateDistance(BigDecimal lat1, BigDecimal long1, BigDecimal lat2, BigDecimal long2) {
-        double lat1Rad = Math.toRadians(lat1.doubleValue());
-        double long1Rad = Math.toRadians(long1.doubleValue());
-        double lat2Rad = Math.toRadians(lat2.doubleValue());
-        double long2Rad = Math.toRadians(long2.doubleValue());
-
-        double earthRadius = 6371000;
-
-        double dLat = lat2Rad - lat1Rad;
-        double dLong = long2Rad - long1Rad;
-
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                Math.cos(lat1Rad) * Math.cos(lat2Rad) *
-                        Math.sin(dLong / 2) * Math.sin(dLong / 2);
-
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return  earthRadius * c;
+    private boolean isLocationAllowed(BigDecimal latitude, BigDecimal longitude) {
+        return allowedLocationIndex.isAllowed(latitude, longitude);
     }
     private BigDecimal generateRandomCoordinate(BigDecimal base, BigDecimal range) {
+        return generateRandomCoordinate(random, base, range);
+    }
+    private BigDecimal generateRandomCoordinate(Random random, BigDecimal base, BigDecimal range) {
         double randomOffset = (random.nextDouble() - 0.5) * 2 * range.doubleValue();
         return base.add(BigDecimal.valueOf(randomOffset)).setScale(8, RoundingMode.HALF_UP);
     }
     public List<Vehicle> getVehiclesNotAtAllowedLocation() {
         return vehicleRepository.findByIsAtAllowedLocationFalse();
     }
-    public void updateAllVehicleLocationStatus() {
-        List<Vehicle> allVehicles = vehicleRepository.findAll();
+    public int updateAllVehicleLocationStatus() {
+        AtomicInteger flipped = new AtomicInteger();
+        vehicleRepository.forEachLocated(vehicle -> {
+            if (reevaluate(vehicle)) {
+                flipped.incrementAndGet();
+            }
+        });
+        return flipped.get();
+    }
+
+    // przelicza tylko pojazdy z shardow tego wezla, ktore zmienily pozycje od ostatniego przebiegu;
+    // po zmianie stref albo przejeciu sharda od innego wezla - caly shard
+    public synchronized int updateChangedVehicleLocationStatus(int shardCount, Set<Integer> shards) {
+        allowedLocationIndex.refreshIfChanged();
+        long zoneVersion = allowedLocationIndex.getVersion();
+        // zegar bazy, jak location_received_at - pozycje przyjmuja tez inne wezly
+        LocalDateTime passStart = vehicleRepository.currentDatabaseTime();
+
+        lastShardPass.keySet().retainAll(shards);
+        if (zoneVersion != lastShardZoneVersion) {
+            lastShardPass.clear();
+        }
+        Set<Integer> fullShards = new HashSet<>();
+        Set<Integer> changedShards = new HashSet<>();
+        LocalDateTime since = null;
+        for (Integer shard : shards) {
+            LocalDateTime shardPass = lastShardPass.get(shard);
+            if (shardPass == null) {
+                fullShards.add(shard);
+            } else {
+                changedShards.add(shard);
+                since = since == null || shardPass.isBefore(since) ? shardPass : since;
+            }
+        }
+
+        AtomicInteger flipped = new AtomicInteger();
+        vehicleRepository.forEachLocatedInShards(shardCount, fullShards, vehicle -> {
+            if (reevaluate(vehicle)) {
+                flipped.incrementAndGet();
+            }
+        });
+        if (since != null) {
+            flipped.addAndGet(reevaluate(vehicleRepository.findByLocationReceivedAfterInShards(since.minus(PASS_OVERLAP), shardCount, changedShards)));
+        }
+
+        for (Integer shard : shards) {
+            lastShardPass.put(shard, passStart);
+        }
+        lastShardZoneVersion = zoneVersion;
+        return flipped.get();
+    }
 
-        for(Vehicle vehicle : allVehicles) {
-            if (vehicle.getLatitude() != null && vehicle.getLongitude() != null) {
-                boolean isAtAllowedLocation = isLocationAllowed(vehicle.getLatitude(),vehicle.getLongitude());
-                vehicle.setAtAllowedLocation(isAtAllowedLocation);
-                vehicleRepository.save(vehicle);
+    private int reevaluate(List<Vehicle> vehicles) {
+        int flipped = 0;
+        for (Vehicle vehicle : vehicles) {
+            if (reevaluate(vehicle)) {
+                flipped++;
             }
         }
+        return flipped;
+    }
+
+    private boolean reevaluate(Vehicle vehicle) {
+        if (vehicle.getLatitude() == null || vehicle.getLongitude() == null) {
+            return false;
+        }
+        boolean isAtAllowedLocation = isLocationAllowed(vehicle.getLatitude(), vehicle.getLongitude());
+        if (vehicle.isAtAllowedLocation() == isAtAllowedLocation) {
+            return false;
+        }
+        // pojazd odczytany bez blokady - przed zapisem swiezy stan z blokada (wypozyczenie, nowa pozycja)
+        vehicleRepository.refreshForUpdate(vehicle);
+        if (vehicle.getLatitude() == null || vehicle.getLongitude() == null) {
+            return false;
+        }
+        isAtAllowedLocation = isLocationAllowed(vehicle.getLatitude(), vehicle.getLongitude());
+        if (vehicle.isAtAllowedLocation() == isAtAllowedLocation) {
+            return false;
+        }
+        vehicle.setAtAllowedLocation(isAtAllowedLocation);
+        vehicleRepository.save(vehicle);
+        publishTransition(vehicle);
+        return true;
     }
     public boolean isVehicleAtMainOffice(Long vehicleId) {
         Vehicle vehicle = vehicleRepository.findById(vehicleId);
             if (vehicle == null || vehicle.getLatitude() == null ||  vehicle.getLongitude() == null) {
                 return false;
             }
-            List<AllowedLocation> mainOffices = allowedLocationRepository.findByIsMainOffice(true);
-
-            for(AllowedLocation office : mainOffices) {
-                double distance = calculateDistance(
-                        vehicle.getLatitude(), vehicle.getLongitude(),
-                        office.getLatitude(), office.getLongitude()
-                );
-                if (distance <= office.getRadiusMeters()) {
-                    return true;
-                }
-            }
-            return false;
+            return allowedLocationIndex.isAtMainOffice(vehicle.getLatitude(), vehicle.getLongitude());
     }
     public Vehicle setVehicleLocationByName(Long vehicleId, String locationName) {
-        Vehicle vehicle = vehicleRepository.findById(vehicleId);
+        Vehicle vehicle = vehicleRepository.findByIdForUpdate(vehicleId);
         if (vehicle == null) {
             throw new IllegalArgumentException("Pojazd nie został znaleziony!");
         }
@@ -144,13 +265,26 @@ public class VehicleLocationService {
             throw new IllegalArgumentException("Lokalizacja nie została znaleziona lub jest nieaktywna!");
         }
 
-        vehicle.updateLocation(
-                location.getLatitude(),
-                location.getLongitude(),
-                location.getName(),
-                true
-        );
+        return applyLocation(vehicle, location.getLatitude(), location.getLongitude(), location.getName(), true, LocalDateTime.now());
+    }
+
+    // kazda przyjeta pozycja trafia tez do historii tras
+    private Vehicle applyLocation(Vehicle vehicle, BigDecimal latitude, BigDecimal longitude, String locationName,
+                                  boolean isAtAllowedLocation, LocalDateTime timestamp) {
+        boolean transition = vehicle.getLatitude() != null && vehicle.isAtAllowedLocation() != isAtAllowedLocation;
+        vehicle.updateLocation(latitude, longitude, locationName, isAtAllowedLocation, timestamp);
+        Vehicle saved = vehicleRepository.save(vehicle);
+        locationHistoryService.record(saved);
+        if (transition) {
+            publishTransition(saved);
+        }
+        return saved;
+    }
 
-        return vehicleRepository.save(vehicle);
+    // czas zdarzenia = czas pozycji, ktora je wywolala (przy zmianie stref - ostatnia znana pozycja)
+    private void publishTransition(Vehicle vehicle) {
+        LocalDateTime fixTime = vehicle.getLastLocationUpdate() != null ? vehicle.getLastLocationUpdate() : LocalDateTime.now();
+        eventPublisher.publishEvent(new LocationTransitionEvent(vehicle.getId(), vehicle.isAtAllowedLocation(),
+                vehicle.getLatitude(), vehicle.getLongitude(), fixTime));
     }
 }
@@ -0,0 +1,122 @@
+package org.example.service;
+
+import org.example.dto.NearbyVehicle;
+import org.example.event.VehicleChangedEvent;
+import org.example.geo.PointGrid;
+import org.example.model.Vehicle;
+import org.example.repository.VehicleRepository;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pozycje aktywnych pojazdow w pamieci (siatka + zbior dostepnych) do zapytan o najblizsze pojazdy.
+ * Aktualizowane zdarzeniami zapisu pojazdu, wiec obejmuje zmiany pozycji, wypozyczenia, zwroty i usuniecia.
+ */
+@Component
+public class VehiclePositionIndex {
+    private static final double CELL_SIZE_DEGREES = 0.005;
+
+    private final VehicleRepository vehicleRepository;
+    private final PointGrid grid = new PointGrid(CELL_SIZE_DEGREES);
+    private final Set<Long> available = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+    // id zmienione zdarzeniami w trakcie ladowania - odczyt z bazy jest dla nich starszy
+    private volatile Set<Long> touchedDuringLoad;
+
+    public VehiclePositionIndex(VehicleRepository vehicleRepository) {
+        this.vehicleRepository = vehicleRepository;
+    }
+
+    // przed ZoneOccupancyTracker, ktory czyta pozycje z tego indeksu
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        Set<Long> touched = touchedDuringLoad;
+        if (touched != null) {
+            synchronized (touched) {
+                touched.add(event.getVehicle().getId());
+                apply(event.getVehicle());
+            }
+        } else if (loaded) {
+            apply(event.getVehicle());
+        }
+    }
+
+    public List<NearbyVehicle> findNearestAvailable(double latitude, double longitude, int k) {
+        ensureLoaded();
+        List<NearbyVehicle> result = new ArrayList<>(k);
+        for (PointGrid.Neighbor neighbor : grid.nearest(latitude, longitude, k, available::contains)) {
+            result.add(new NearbyVehicle(neighbor.getId(), neighbor.getLatitude(), neighbor.getLongitude(), neighbor.getDistanceMeters()));
+        }
+        return result;
+    }
+
+    public PointGrid.Point getPosition(Long vehicleId) {
+        ensureLoaded();
+        return grid.get(vehicleId);
+    }
+
+    public PointGrid positions() {
+        ensureLoaded();
+        return grid;
+    }
+
+    public boolean isAvailable(Long vehicleId) {
+        return available.contains(vehicleId);
+    }
+
+    public void apply(Vehicle vehicle) {
+        if (vehicle.getId() == null) {
+            return;
+        }
+        if (vehicle.isDeleted() || vehicle.getLatitude() == null || vehicle.getLongitude() == null) {
+            grid.remove(vehicle.getId());
+            available.remove(vehicle.getId());
+            return;
+        }
+        grid.put(vehicle.getId(), vehicle.getLatitude().doubleValue(), vehicle.getLongitude().doubleValue());
+        if (vehicle.isRented()) {
+            available.remove(vehicle.getId());
+        } else {
+            available.add(vehicle.getId());
+        }
+    }
+
+    // czytelnicy czekaja na koniec ladowania; zdarzenia w tym czasie sa stosowane od razu i maja pierwszenstwo
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            Set<Long> touched = new HashSet<>();
+            touchedDuringLoad = touched;
+            try {
+                vehicleRepository.forEachLocated(vehicle -> {
+                    synchronized (touched) {
+                        if (!touched.contains(vehicle.getId())) {
+                            apply(vehicle);
+                        }
+                    }
+                });
+                loaded = true;
+            } catch (RuntimeException e) {
+                grid.clear();
+                available.clear();
+                throw e;
+            } finally {
+                touchedDuringLoad = null;
+            }
+        }
+    }
+}
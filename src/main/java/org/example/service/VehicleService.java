@@ -1,19 +1,30 @@
 package org.example.service;
 
+import org.example.dto.CacheStats;
+import org.example.dto.PageResponse;
+import org.example.dto.SearchPageResponse;
+import org.example.dto.VehicleListFilter;
+import org.example.dto.VehicleSearchCriteria;
+import org.example.dto.VehicleSummary;
 import org.example.model.Vehicle;
 import org.example.repository.VehicleRepository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface VehicleService {
     public List<Vehicle> getAll();
     List<Vehicle> getAllActive();
     Optional<Vehicle> findById(Long vehicleId);
     Vehicle save(Vehicle vehicle);
-    public List<Vehicle> getAvailable();
+    public List<VehicleSummary> getAvailable();
     public List<Vehicle> getRented();
     boolean isAvailable(Long vehicleId);
     void deleteById(Long vehicleId);
     public List<Vehicle> getDeleted();
+    long forEachVehicle(Consumer<Vehicle> consumer);
+    PageResponse<VehicleSummary> getPage(VehicleListFilter filter, Long after, int limit);
+    CacheStats getAvailableCacheStats();
+    SearchPageResponse<VehicleSummary> search(VehicleSearchCriteria criteria, String after, int limit);
 }
\ No newline at end of file
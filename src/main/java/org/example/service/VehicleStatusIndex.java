@@ -0,0 +1,182 @@
+package org.example.service;
+
+import org.example.bitmap.IdBitmap;
+import org.example.dto.VehicleStatusFilter;
+import org.example.dto.VehicleStatusResult;
+import org.example.event.VehicleChangedEvent;
+import org.example.model.Vehicle;
+import org.example.repository.VehicleRepository;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Bitmapy statusow pojazdow (rented, deleted, isAtAllowedLocation, type) po id.
+ * Dowolna kombinacja warunkow to AND / AND NOT na slowach bitmap, bez zapytania do bazy.
+ * Aktualizowane zdarzeniami zapisu z VehicleRepositoryImpl.
+ */
+@Component
+public class VehicleStatusIndex {
+    private final VehicleRepository vehicleRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IdBitmap all = new IdBitmap();
+    private final IdBitmap rented = new IdBitmap();
+    private final IdBitmap deleted = new IdBitmap();
+    private final IdBitmap atAllowedLocation = new IdBitmap();
+    private final Map<String, IdBitmap> types = new HashMap<>();
+    private volatile boolean loaded;
+    // true w trakcie ladowania - zdarzenia czekaja wtedy na blokade zapisu zamiast przepadac
+    private volatile boolean loading;
+
+    public VehicleStatusIndex(VehicleRepository vehicleRepository) {
+        this.vehicleRepository = vehicleRepository;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        if (loaded || loading) {
+            apply(event.getVehicle());
+        }
+    }
+
+    public long count(VehicleStatusFilter filter) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<IdBitmap.Term> terms = terms(filter);
+            return terms == null ? 0 : IdBitmap.count(all, terms);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public VehicleStatusResult find(VehicleStatusFilter filter, Long after, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<IdBitmap.Term> terms = terms(filter);
+            if (terms == null) {
+                return new VehicleStatusResult(0, List.of(), false, null);
+            }
+            List<Long> ids = new ArrayList<>(Math.min(limit + 1, 1024));
+            IdBitmap.forEach(all, terms, after != null ? Math.max(after, 0) : 0, limit + 1, ids::add);
+            boolean hasMore = ids.size() > limit;
+            if (hasMore) {
+                ids.remove(ids.size() - 1);
+            }
+            String nextCursor = hasMore ? String.valueOf(ids.get(ids.size() - 1)) : null;
+            return new VehicleStatusResult(IdBitmap.count(all, terms), ids, hasMore, nextCursor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // przeglada id pasujace do filtra rosnaco od after, dopoki consumer zwraca true
+    public void forEachMatching(VehicleStatusFilter filter, long after, LongPredicate consumer) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<IdBitmap.Term> terms = terms(filter);
+            if (terms != null) {
+                IdBitmap.forEachWhile(all, terms, Math.max(after, 0), consumer);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean matches(Long vehicleId, VehicleStatusFilter filter) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            if (!all.contains(vehicleId)) {
+                return false;
+            }
+            IdBitmap type = filter.type() != null ? types.get(filter.type()) : null;
+            return (filter.rented() == null || rented.contains(vehicleId) == filter.rented())
+                    && (filter.deleted() == null || deleted.contains(vehicleId) == filter.deleted())
+                    && (filter.atAllowedLocation() == null || atAllowedLocation.contains(vehicleId) == filter.atAllowedLocation())
+                    && (filter.type() == null || (type != null && type.contains(vehicleId)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void apply(Vehicle vehicle) {
+        if (vehicle.getId() == null) {
+            return;
+        }
+        long id = vehicle.getId();
+        String type = vehicle.getType() != null ? vehicle.getType() : Hibernate.getClass(vehicle).getSimpleName();
+        lock.writeLock().lock();
+        try {
+            all.set(id);
+            rented.set(id, vehicle.isRented());
+            deleted.set(id, vehicle.isDeleted());
+            atAllowedLocation.set(id, vehicle.isAtAllowedLocation());
+            for (Map.Entry<String, IdBitmap> entry : types.entrySet()) {
+                if (!entry.getKey().equals(type)) {
+                    entry.getValue().clear(id);
+                }
+            }
+            types.computeIfAbsent(type, t -> new IdBitmap()).set(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // null = warunek niemozliwy do spelnienia (nieznany typ)
+    private List<IdBitmap.Term> terms(VehicleStatusFilter filter) {
+        List<IdBitmap.Term> terms = new ArrayList<>(4);
+        if (filter.type() != null) {
+            IdBitmap type = types.get(filter.type());
+            if (type == null) {
+                return null;
+            }
+            terms.add(IdBitmap.Term.of(type));
+        }
+        addFlag(terms, rented, filter.rented());
+        addFlag(terms, deleted, filter.deleted());
+        addFlag(terms, atAllowedLocation, filter.atAllowedLocation());
+        return terms;
+    }
+
+    private static void addFlag(List<IdBitmap.Term> terms, IdBitmap bitmap, Boolean value) {
+        if (value != null) {
+            terms.add(value ? IdBitmap.Term.of(bitmap) : IdBitmap.Term.not(bitmap));
+        }
+    }
+
+    // ladowanie pod blokada zapisu - zdarzenia z commitow w trakcie ladowania czekaja i nakladaja sie po nim
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                loading = true;
+                vehicleRepository.forEachVehicle(this::apply);
+                loaded = true;
+            }
+        } catch (RuntimeException e) {
+            // czesciowo wypelnione bitmapy nie moga zostac uznane za indeks - nastepne wywolanie laduje od nowa
+            all.clearAll();
+            rented.clearAll();
+            deleted.clearAll();
+            atAllowedLocation.clearAll();
+            types.clear();
+            throw e;
+        } finally {
+            loading = false;
+            lock.writeLock().unlock();
+        }
+    }
+}
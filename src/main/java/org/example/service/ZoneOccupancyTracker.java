@@ -0,0 +1,165 @@
+package org.example.service;
+
+import org.example.dto.ZoneOccupancy;
+import org.example.event.AllowedLocationsReindexedEvent;
+import org.example.event.VehicleChangedEvent;
+import org.example.geo.PointGrid;
+import org.example.geo.PreparedZone;
+import org.example.geo.ZoneGrid;
+import org.example.model.AllowedLocation;
+import org.example.model.Vehicle;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Liczniki pojazdow w kazdej strefie, utrzymywane przyrostowo. Zmiana jednego pojazdu blokuje tylko jego wpis
+ * (ConcurrentHashMap.compute), wiec nie ma globalnej blokady; odczyt kosztuje O(liczba stref).
+ */
+@Component
+public class ZoneOccupancyTracker {
+    private static final long[] NONE = new long[0];
+
+    private final AllowedLocationIndex allowedLocationIndex;
+    private final VehiclePositionIndex vehiclePositionIndex;
+    private final ConcurrentHashMap<Long, AtomicInteger> counts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, long[]> membership = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public ZoneOccupancyTracker(AllowedLocationIndex allowedLocationIndex, VehiclePositionIndex vehiclePositionIndex) {
+        this.allowedLocationIndex = allowedLocationIndex;
+        this.vehiclePositionIndex = vehiclePositionIndex;
+    }
+
+    // po VehiclePositionIndex - recount czyta pozycje z indeksu, wiec musi on byc juz aktualny
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        Vehicle vehicle = event.getVehicle();
+        if (vehicle.isDeleted() || vehicle.getLatitude() == null || vehicle.getLongitude() == null) {
+            move(vehicle.getId(), () -> NONE);
+        } else {
+            double latitude = vehicle.getLatitude().doubleValue();
+            double longitude = vehicle.getLongitude().doubleValue();
+            move(vehicle.getId(), () -> zonesAt(allowedLocationIndex.snapshot(), latitude, longitude));
+        }
+    }
+
+    @EventListener
+    public void onZonesReindexed(AllowedLocationsReindexedEvent event) {
+        if (loaded) {
+            recount();
+        }
+    }
+
+    public List<ZoneOccupancy> getOccupancy(boolean mainOfficeOnly) {
+        ensureLoaded();
+        PreparedZone[] zones = allowedLocationIndex.snapshot().zones();
+        List<ZoneOccupancy> result = new ArrayList<>(zones.length);
+        for (PreparedZone zone : zones) {
+            if (mainOfficeOnly && !zone.isMainOffice()) {
+                continue;
+            }
+            AllowedLocation location = zone.getLocation();
+            AtomicInteger count = counts.get(location.getId());
+            result.add(new ZoneOccupancy(location.getId(), location.getName(), zone.isMainOffice(), count != null ? count.get() : 0));
+        }
+        return result;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                loaded = true;
+                recount();
+            }
+        }
+    }
+
+    // po zmianie zbioru stref przeliczamy przynaleznosc z pozycji w pamieci, bez czytania tabeli pojazdow
+    private void recount() {
+        ZoneGrid snapshot = allowedLocationIndex.snapshot();
+        Set<Long> zoneIds = new HashSet<>();
+        for (PreparedZone zone : snapshot.zones()) {
+            zoneIds.add(zone.getLocation().getId());
+            counts.putIfAbsent(zone.getLocation().getId(), new AtomicInteger());
+        }
+        counts.keySet().retainAll(zoneIds);
+
+        // pozycja czytana ponownie wewnatrz compute - rownolegle zdarzenie tego pojazdu nie zostanie nadpisane starsza
+        PointGrid positions = vehiclePositionIndex.positions();
+        Set<Long> located = new HashSet<>();
+        positions.forEach(point -> {
+            located.add(point.getId());
+            move(point.getId(), () -> zonesAt(snapshot, positions.get(point.getId())));
+        });
+        for (Long vehicleId : membership.keySet()) {
+            if (!located.contains(vehicleId)) {
+                move(vehicleId, () -> zonesAt(snapshot, positions.get(vehicleId)));
+            }
+        }
+    }
+
+    // nowa przynaleznosc wyliczana pod blokada wpisu pojazdu
+    private void move(Long vehicleId, Supplier<long[]> zones) {
+        membership.compute(vehicleId, (id, previous) -> {
+            long[] current = zones.get();
+            long[] old = previous != null ? previous : NONE;
+            for (long zoneId : old) {
+                if (!contains(current, zoneId)) {
+                    AtomicInteger count = counts.get(zoneId);
+                    if (count != null) {
+                        count.decrementAndGet();
+                    }
+                }
+            }
+            for (long zoneId : current) {
+                if (!contains(old, zoneId)) {
+                    counts.computeIfAbsent(zoneId, z -> new AtomicInteger()).incrementAndGet();
+                }
+            }
+            return current.length == 0 ? null : current;
+        });
+    }
+
+    private static long[] zonesAt(ZoneGrid snapshot, PointGrid.Point point) {
+        return point == null ? NONE : zonesAt(snapshot, point.getLatitude(), point.getLongitude());
+    }
+
+    private static long[] zonesAt(ZoneGrid snapshot, double latitude, double longitude) {
+        List<AllowedLocation> zones = snapshot.findContaining(latitude, longitude);
+        if (zones.isEmpty()) {
+            return NONE;
+        }
+        long[] ids = new long[zones.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = zones.get(i).getId();
+        }
+        return ids;
+    }
+
+    private static boolean contains(long[] ids, long id) {
+        for (long value : ids) {
+            if (value == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
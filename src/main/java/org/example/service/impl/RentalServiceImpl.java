@@ -1,14 +1,19 @@
 package org.example.service.impl;
 
+import org.example.dto.RentalSummary;
 import org.example.model.PaymentStatus;
 import org.example.model.Rental;
 import org.example.model.Vehicle;
 import org.example.repository.RentalRepository;
+import org.example.repository.ReservationRepository;
 import org.example.repository.VehicleRepository;
 import org.example.service.PaymentService;
 import org.example.service.RentalService;
+import org.example.service.ReservationIndex;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -22,12 +27,17 @@ public class RentalServiceImpl implements RentalService {
     private final RentalRepository rentalRepo;
     private final VehicleRepository vehicleRepo;
     private final PaymentService paymentService;
+    private final ReservationIndex reservationIndex;
+    private final ReservationRepository reservationRepo;
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
-    public RentalServiceImpl(RentalRepository rentalRepo,VehicleRepository vehicleRepo, PaymentService paymentService) {
+    public RentalServiceImpl(RentalRepository rentalRepo,VehicleRepository vehicleRepo, PaymentService paymentService,
+                             ReservationIndex reservationIndex, ReservationRepository reservationRepo) {
         this.rentalRepo = rentalRepo;
         this.vehicleRepo = vehicleRepo;
         this.paymentService = paymentService;
+        this.reservationIndex = reservationIndex;
+        this.reservationRepo = reservationRepo;
     }
 
     @Override
@@ -40,31 +50,43 @@ public class RentalServiceImpl implements RentalService {
         return rentalRepo.findActiveRentalByVehicleId(vehicleId);
     }
     @Override
-    public List<Rental> findActiveRentalByUserId(Long userId){
-        return rentalRepo.findActiveRentalByUserId(userId);
+    public List<RentalSummary> findActiveRentalByUserId(Long userId){
+        return rentalRepo.findSummariesByUserId(userId, false);
     }
     @Override
+    @Transactional
     public Rental rent(Long vehicleId, Long userId) {
-        Vehicle vehicle = vehicleRepo.findById(vehicleId);
-        if (vehicle == null || vehicle.isRented() || vehicle.isDeleted()){
+        // trwajaca rezerwacja innego uzytkownika - szybkie odrzucenie z indeksu w pamieci
+        Long reservedBy = reservationIndex.reservedBy(vehicleId, LocalDateTime.now());
+        if (reservedBy != null && !reservedBy.equals(userId)) {
+            return null;
+        }
+        // najpierw warunkowy UPDATE - z dwoch rownoleglych wypozyczen przejdzie dokladnie jedno
+        Vehicle vehicle = vehicleRepo.markRented(vehicleId);
+        if (vehicle == null) {
+            return null;
+        }
+        // indeks moze nie znac rezerwacji z innego wezla; blokada wiersza pojazdu jest juz trzymana,
+        // a tworzenie rezerwacji tez ja bierze - sprawdzenie w bazie jest rozstrzygajace
+        LocalDateTime now = LocalDateTime.now();
+        if (reservationRepo.existsActiveByOtherUser(vehicleId, userId, now)) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return null;
         }
         Rental rental = new Rental();
         rental.setVehicleId(vehicleId);
         rental.setUserId(userId);
 
-        LocalDateTime now = LocalDateTime.now();
         LocalDateTime start = now.withSecond(0).withNano(0);
         rental.setStartDate(start.format(DATE_TIME_FORMATTER));
 
         rental.setEndDate(null);
         rental.setPaymentStatus(PaymentStatus.PENDING);
         rentalRepo.save(rental);
-        vehicle.setRented(true);
-        vehicleRepo.save(vehicle);
         return rental;
     }
     @Override
+    @Transactional
     public Rental returnRental(Long vehicleId, Long userId) {
         Optional<Rental> rentalOpt = rentalRepo.findActiveRentalByVehicleId(vehicleId);
         if (rentalOpt.isPresent()) {
@@ -78,6 +100,10 @@ public class RentalServiceImpl implements RentalService {
             if (!vehicle.isAtAllowedLocation()) {
                 return null;
             }
+            // rownolegly zwrot tego samego pojazdu juz przeszedl
+            if (vehicleRepo.markReturned(vehicleId) == null) {
+                return null;
+            }
 
             LocalDateTime now = LocalDateTime.now();
             LocalDateTime end = now.withSecond(0).withNano(0);
@@ -93,9 +119,6 @@ public class RentalServiceImpl implements RentalService {
             activeRental.setReturned(true);
             rentalRepo.save(activeRental);
 
-            vehicle.setRented(false);
-            vehicleRepo.save(vehicle);
-
             return activeRental;
         }
         return null;
@@ -106,20 +129,20 @@ public class RentalServiceImpl implements RentalService {
 
     }
     @Override
-    public List<Rental> allActiveRentlas() {
-        return rentalRepo.findAllActiveRentals();
+    public List<RentalSummary> allActiveRentlas() {
+        return rentalRepo.findSummaries(false);
     }
     @Override
-    public List<Rental> allRentalHistory() {
-        return rentalRepo.findAllRentalsHistory();
+    public List<RentalSummary> allRentalHistory() {
+        return rentalRepo.findSummaries(true);
     }
     @Override
-    public List<Rental> historyByUserId(Long userId) {
-        return rentalRepo.historyByUserId(userId);
+    public List<RentalSummary> historyByUserId(Long userId) {
+        return rentalRepo.findSummariesByUserId(userId, true);
     }
     @Override
-    public List<Rental> historyByVehicleId(Long vehicleId) {
-    return rentalRepo.findByVehicleId(vehicleId);
+    public List<RentalSummary> historyByVehicleId(Long vehicleId) {
+    return rentalRepo.findSummariesByVehicleId(vehicleId);
     }
 
     @Override
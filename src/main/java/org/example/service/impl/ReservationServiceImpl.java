@@ -0,0 +1,100 @@
+package org.example.service.impl;
+
+import org.example.dto.PageResponse;
+import org.example.model.Reservation;
+import org.example.model.Vehicle;
+import org.example.repository.ReservationRepository;
+import org.example.repository.VehicleRepository;
+import org.example.service.ReservationIndex;
+import org.example.service.ReservationService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class ReservationServiceImpl implements ReservationService {
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final ReservationRepository reservationRepository;
+    private final VehicleRepository vehicleRepository;
+    private final ReservationIndex reservationIndex;
+
+    public ReservationServiceImpl(ReservationRepository reservationRepository, VehicleRepository vehicleRepository,
+                                  ReservationIndex reservationIndex) {
+        this.reservationRepository = reservationRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.reservationIndex = reservationIndex;
+    }
+
+    @Override
+    @Transactional
+    public Reservation create(Long vehicleId, Long userId, LocalDateTime startTime, LocalDateTime endTime) {
+        validatePeriod(startTime, endTime);
+        if (startTime.isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Początek rezerwacji nie może być w przeszłości!");
+        }
+        // blokada wiersza pojazdu - sprawdzenie kolizji i zapis sa atomowe rowniez miedzy wezlami
+        Vehicle vehicle = vehicleId != null ? vehicleRepository.findByIdForUpdate(vehicleId) : null;
+        if (vehicle == null || vehicle.isDeleted()) {
+            throw new IllegalArgumentException("Pojazd o id " + vehicleId + " nie istnieje!");
+        }
+        if (reservationRepository.existsOverlap(vehicleId, startTime, endTime)) {
+            throw new IllegalStateException("Pojazd jest już zarezerwowany w tym terminie!");
+        }
+        Reservation reservation = new Reservation();
+        reservation.setVehicleId(vehicleId);
+        reservation.setUserId(userId);
+        reservation.setStartTime(startTime);
+        reservation.setEndTime(endTime);
+        return reservationRepository.save(reservation);
+    }
+
+    @Override
+    @Transactional
+    public Reservation cancel(Long reservationId) {
+        Reservation reservation = reservationRepository.findById(reservationId);
+        if (reservation == null) {
+            throw new IllegalArgumentException("Rezerwacja o id " + reservationId + " nie istnieje!");
+        }
+        if (reservation.isCancelled()) {
+            return reservation;
+        }
+        reservation.setCancelled(true);
+        return reservationRepository.save(reservation);
+    }
+
+    @Override
+    public Reservation findById(Long reservationId) {
+        return reservationRepository.findById(reservationId);
+    }
+
+    @Override
+    public List<Reservation> findByUserId(Long userId) {
+        return reservationRepository.findByUserId(userId);
+    }
+
+    @Override
+    public List<Reservation> findByVehicleId(Long vehicleId) {
+        return reservationRepository.findByVehicleId(vehicleId);
+    }
+
+    @Override
+    public PageResponse<Long> findAvailableVehicles(LocalDateTime from, LocalDateTime to, String type, Long after, int limit) {
+        validatePeriod(from, to);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit musi być w przedziale 1-" + MAX_PAGE_SIZE + "!");
+        }
+        return reservationIndex.findAvailable(from, to, type, after, limit);
+    }
+
+    private static void validatePeriod(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Początek i koniec terminu są wymagane!");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Początek terminu musi być przed jego końcem!");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.service.impl;
 
+import org.example.dto.UserSummary;
 import org.example.model.Role;
 import org.example.model.User;
 import org.example.repository.RoleRepository;
@@ -100,12 +101,16 @@ public class UserServiceImpl implements UserService {
      throw  new IllegalArgumentException("Użytkownik nie znaleziony!");
     }
     @Override
-    public List<User> findAllDeletedUsers() {
-        return repo.findDeletedUsers();
+    public List<UserSummary> findAllDeletedUsers() {
+        return repo.findSummaries(true);
     }
     @Override
-    public List<User> findAllActiveUsers() {
-       return repo.findAllActiveUsers();
+    public List<UserSummary> findAllActiveUsers() {
+       return repo.findSummaries(false);
+    }
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        return repo.findSummaries(null);
     }
     @Override
     public String getPrimaryRole(User user) {
@@ -1,19 +1,56 @@
 package org.example.service.impl;
 
+import org.example.dto.CacheStats;
+import org.example.dto.PageResponse;
+import org.example.dto.SearchPageResponse;
+import org.example.dto.VehicleListFilter;
+import org.example.dto.VehicleSearchCriteria;
+import org.example.dto.VehicleSortField;
+import org.example.dto.VehicleSummary;
+import org.example.event.VehicleCatalogRefreshedEvent;
+import org.example.event.VehicleChangedEvent;
 import org.example.model.Vehicle;
 import org.example.repository.VehicleRepository;
 import org.example.service.VehicleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 @Service
 public class VehicleServiceImpl implements  VehicleService {
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_LOAD_ATTEMPTS = 3;
     private final VehicleRepository repository;
 
+    // cache dostepnych pojazdow (id -> niemutowalny widok pojazdu), ladowany przy pierwszym odczycie i latany zdarzeniami VehicleChangedEvent.
+    // Zdarzenia sa tylko lokalne - zapisy z innych wezlow dociera przeladowanie po ttl
+    private volatile ConcurrentSkipListMap<Long, VehicleSummary> available;
+    private volatile long loadedAt;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private final Object loadLock = new Object();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong patches = new AtomicLong();
+
+    @Value("${app.vehicle.available-cache.ttl-ms:30000}")
+    private long availableCacheTtlMs;
+
     public VehicleServiceImpl(VehicleRepository repository) {
         this.repository = repository;
     }
@@ -37,8 +74,8 @@ public class VehicleServiceImpl implements  VehicleService {
         return repository.save(vehicle);
     }
     @Override
-    public List<Vehicle> getAvailable() {
-        return repository.getAvailabeVehicles();
+    public List<VehicleSummary> getAvailable() {
+        return new ArrayList<>(availableVehicles().values());
     }
     @Override
     public List<Vehicle> getRented() {
@@ -57,4 +94,169 @@ public class VehicleServiceImpl implements  VehicleService {
     public List <Vehicle> getDeleted() {
         return repository.findByDeletedTrue();
     }
-}
\ No newline at end of file
+
+    @Override
+    public long forEachVehicle(Consumer<Vehicle> consumer) {
+        return repository.forEachVehicle(consumer);
+    }
+
+    // pobiera limit + 1 wierszy - nadmiarowy wiersz mowi tylko, czy jest nastepna strona
+    @Override
+    public PageResponse<VehicleSummary> getPage(VehicleListFilter filter, Long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit musi byc z zakresu 1-" + MAX_PAGE_SIZE + "!");
+        }
+        List<VehicleSummary> vehicles = filter == VehicleListFilter.AVAILABLE
+                ? availablePage(after, limit + 1)
+                : repository.findSummaryPage(filter, after, limit + 1);
+        boolean hasMore = vehicles.size() > limit;
+        if (hasMore) {
+            vehicles = new ArrayList<>(vehicles.subList(0, limit));
+        }
+        Long nextCursor = hasMore ? vehicles.get(vehicles.size() - 1).id() : null;
+        return new PageResponse<>(vehicles, limit, hasMore, nextCursor);
+    }
+
+    @Override
+    public CacheStats getAvailableCacheStats() {
+        Map<Long, VehicleSummary> current = available;
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return new CacheStats(current != null, current != null ? current.size() : 0, hitCount, misses.get(),
+                total == 0 ? 0 : (double) hitCount / total, loads.get(), patches.get());
+    }
+
+    // najpierw generacja, potem latka - loader, ktory nie zobaczy latki, zobaczy zmieniona generacje i powtorzy odczyt
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        Vehicle vehicle = event.getVehicle();
+        if (vehicle.getId() == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        ConcurrentSkipListMap<Long, VehicleSummary> current = available;
+        if (current == null) {
+            return;
+        }
+        if (vehicle.isRented() || vehicle.isDeleted()) {
+            current.remove(vehicle.getId());
+        } else {
+            current.put(vehicle.getId(), VehicleSummary.of(vehicle));
+        }
+        patches.incrementAndGet();
+    }
+
+    // zmiana w bazie wykryta przez CatalogVersionTracker (np. z innego wezla) - przeladowanie zanim podbije wersje ETagu
+    @EventListener
+    public void onCatalogRefreshed(VehicleCatalogRefreshedEvent event) {
+        if (available != null) {
+            loadedAt = 0;
+            availableVehicles();
+        }
+    }
+
+    private List<VehicleSummary> availablePage(Long after, int limit) {
+        List<VehicleSummary> page = new ArrayList<>(limit);
+        for (VehicleSummary vehicle : availableVehicles().tailMap(after != null ? after : 0L, false).values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(vehicle);
+        }
+        return page;
+    }
+
+    private ConcurrentSkipListMap<Long, VehicleSummary> availableVehicles() {
+        ConcurrentSkipListMap<Long, VehicleSummary> current = available;
+        if (current != null && !isExpired()) {
+            hits.incrementAndGet();
+            return current;
+        }
+        misses.incrementAndGet();
+        // wygasly cache przeladowuje jeden watek, pozostale do tego czasu dostaja poprzednia wersje
+        if (current != null && !reloading.compareAndSet(false, true)) {
+            return current;
+        }
+        try {
+            // tylko jeden watek czyta baze, pozostale czekaja na jego wynik
+            synchronized (loadLock) {
+                if (available != null && !isExpired()) {
+                    return available;
+                }
+                ConcurrentSkipListMap<Long, VehicleSummary> loaded = null;
+                for (int attempt = 0; attempt < MAX_LOAD_ATTEMPTS; attempt++) {
+                    long startGeneration = generation.get();
+                    long startedAt = System.currentTimeMillis();
+                    loaded = load();
+                    loadedAt = startedAt;
+                    available = loaded;
+                    if (generation.get() == startGeneration) {
+                        return loaded;
+                    }
+                    // zmiana w trakcie odczytu mogla sie w nim nie znalezc
+                    available = null;
+                }
+                return loaded;
+            }
+        } finally {
+            if (current != null) {
+                reloading.set(false);
+            }
+        }
+    }
+
+    private boolean isExpired() {
+        return System.currentTimeMillis() - loadedAt >= availableCacheTtlMs;
+    }
+
+    private ConcurrentSkipListMap<Long, VehicleSummary> load() {
+        loads.incrementAndGet();
+        ConcurrentSkipListMap<Long, VehicleSummary> loaded = new ConcurrentSkipListMap<>();
+        for (VehicleSummary vehicle : repository.findAvailableSummaries()) {
+            loaded.put(vehicle.id(), vehicle);
+        }
+        return loaded;
+    }
+
+    @Override
+    public SearchPageResponse<VehicleSummary> search(VehicleSearchCriteria criteria, String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit musi byc z zakresu 1-" + MAX_PAGE_SIZE + "!");
+        }
+        applyCursor(criteria, after);
+        List<VehicleSummary> vehicles = repository.search(criteria, limit + 1);
+        boolean hasMore = vehicles.size() > limit;
+        if (hasMore) {
+            vehicles = new ArrayList<>(vehicles.subList(0, limit));
+        }
+        String nextCursor = hasMore ? cursorOf(criteria.getSort(), vehicles.get(vehicles.size() - 1)) : null;
+        return new SearchPageResponse<>(vehicles, limit, hasMore, nextCursor);
+    }
+
+    // kursor wyszukiwania: "id" dla sortowania po id, "wartosc:id" dla pozostalych
+    private static String cursorOf(VehicleSortField sort, VehicleSummary last) {
+        return switch (sort) {
+            case ID -> String.valueOf(last.id());
+            case PRICE -> last.price() + ":" + last.id();
+            case YEAR -> last.year() + ":" + last.id();
+        };
+    }
+
+    private static void applyCursor(VehicleSearchCriteria criteria, String after) {
+        if (after == null || after.isBlank()) {
+            return;
+        }
+        try {
+            if (criteria.getSort() == VehicleSortField.ID) {
+                criteria.setAfterId(Long.parseLong(after));
+                return;
+            }
+            int separator = after.indexOf(':');
+            criteria.setAfterValue(Integer.parseInt(after.substring(0, separator)));
+            criteria.setAfterId(Long.parseLong(after.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Nieprawidlowy kursor: " + after);
+        }
+    }
+}
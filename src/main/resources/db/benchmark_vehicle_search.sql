@@ -0,0 +1,48 @@
+-- Benchmark wyszukiwania pojazdow na flocie 1M wierszy. Uruchamiac recznie na osobnej bazie (psql -f),
+-- po starcie aplikacji, zeby istnialy tabela vehicle i indeksy z db/indexes.sql. Nie jest ladowany przez aplikacje.
+
+BEGIN;
+
+INSERT INTO vehicle (id, type, brand, model, year, price, plate, rented, deleted, licence_category, attributes, is_at_allowed_location)
+SELECT 10000000 + g,
+       CASE WHEN g % 5 = 0 THEN 'Motorcycle' ELSE 'Car' END,
+       (ARRAY['Toyota', 'Ford', 'Honda', 'BMW', 'Mercedes', 'Kawasaki', 'Yamaha', 'Skoda', 'Audi', 'Kia'])[1 + g % 10],
+       'Model ' || (g % 50),
+       2000 + g % 25,
+       50 + g % 950,
+       'BENCH' || g,
+       g % 7 = 0,
+       g % 97 = 0,
+       CASE WHEN g % 5 = 0 THEN (ARRAY['A', 'A1', 'A2', 'AM'])[1 + g % 4] END,
+       jsonb_build_object('color', (ARRAY['red', 'black', 'white', 'blue', 'silver'])[1 + g % 5],
+                          'fuel', (ARRAY['petrol', 'diesel', 'electric', 'hybrid'])[1 + g % 4]),
+       true
+FROM generate_series(1, 1000000) AS g;
+
+ANALYZE vehicle;
+
+-- 1. marka + przedzial cen, sortowanie po cenie: idx_vehicle_brand_model albo idx_vehicle_available_price
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, type, brand, model, year, price, plate, rented, deleted FROM vehicle
+WHERE rented = false AND deleted = false AND lower(brand) = lower('BMW') AND price >= 100 AND price <= 300
+ORDER BY price ASC, id ASC LIMIT 101;
+
+-- 2. filtr atrybutow: Bitmap Index Scan na idx_vehicle_attributes
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, type, brand, model, year, price, plate, rented, deleted FROM vehicle
+WHERE rented = false AND deleted = false AND attributes @> CAST('{"color":"red","fuel":"electric"}' AS jsonb)
+ORDER BY id ASC LIMIT 101;
+
+-- 3. gleboka strona kursorem (price, id): Index Scan na idx_vehicle_available_price, koszt jak pierwszej strony
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, type, brand, model, year, price, plate, rented, deleted FROM vehicle
+WHERE rented = false AND deleted = false AND (price, id) > (900, 10900000)
+ORDER BY price ASC, id ASC LIMIT 101;
+
+-- 4. rocznik malejaco, motocykle z kategoria A2
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, type, brand, model, year, price, plate, rented, deleted FROM vehicle
+WHERE rented = false AND deleted = false AND type = 'Motorcycle' AND licence_category = 'A2' AND year >= 2015
+ORDER BY year DESC, id DESC LIMIT 101;
+
+ROLLBACK;
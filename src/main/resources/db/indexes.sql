@@ -0,0 +1,69 @@
+-- Indeksy tworzone po aktualizacji schematu przez Hibernate (spring.jpa.defer-datasource-initialization).
+-- Kazda instrukcja jest idempotentna - skrypt wykonuje sie przy kazdym starcie.
+-- Instrukcje konczy ^; (spring.sql.init.separator), bo ciala funkcji i blokow DO zawieraja srednik.
+
+-- wyszukiwanie: dostepne pojazdy sortowane po cenie / roczniku, kursor (wartosc, id)
+CREATE INDEX IF NOT EXISTS idx_vehicle_available_price ON vehicle (price, id) WHERE rented = false AND deleted = false^;
+CREATE INDEX IF NOT EXISTS idx_vehicle_available_year ON vehicle (year, id) WHERE rented = false AND deleted = false^;
+
+-- wyszukiwanie: marka / model bez rozrozniania wielkosci liter
+CREATE INDEX IF NOT EXISTS idx_vehicle_brand_model ON vehicle (lower(brand), lower(model))^;
+
+-- wyszukiwanie: atrybuty (attributes @> '{"color":"red"}'); jsonb_path_ops obsluguje tylko @>, ale jest mniejszy
+CREATE INDEX IF NOT EXISTS idx_vehicle_attributes ON vehicle USING gin (attributes jsonb_path_ops)^;
+
+-- przyrostowy przebieg statusu lokalizacji (location_received_at > ostatni przebieg)
+DROP INDEX IF EXISTS idx_vehicle_last_location_update^;
+CREATE INDEX IF NOT EXISTS idx_vehicle_location_received_at ON vehicle (location_received_at) WHERE deleted = false^;
+
+-- vehicle.id przeszlo z IDENTITY na sekwencje vehicle_seq (pula 50); sekwencja musi zaczynac ponad istniejacymi id
+SELECT setval('vehicle_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 50 FROM vehicle), (SELECT last_value FROM vehicle_seq)))^;
+
+-- najwyzej jedno aktywne wypozyczenie pojazdu; przy istniejacych duplikatach tworzenie sie nie powiedzie (continue-on-error)
+CREATE UNIQUE INDEX IF NOT EXISTS uq_rental_active_vehicle ON rental (vehicle_id) WHERE returned = false^;
+
+-- rezerwacje: aktywne rezerwacje jednego pojazdu nie moga na siebie nachodzic ([start, end) jak tsrange domyslnie);
+-- ADD CONSTRAINT nie ma IF NOT EXISTS - sprawdzenie w bloku DO (separator ^; pozwala na ; wewnatrz bloku)
+CREATE EXTENSION IF NOT EXISTS btree_gist^;
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ex_reservation_vehicle_period') THEN
+        ALTER TABLE reservation ADD CONSTRAINT ex_reservation_vehicle_period
+            EXCLUDE USING gist (vehicle_id WITH =, tsrange(start_time, end_time) WITH &&) WHERE (cancelled = false);
+    END IF;
+END
+$$^;
+
+-- ladowanie indeksu rezerwacji (cancelled = false AND end_time > now) i rezerwacje uzytkownika
+CREATE INDEX IF NOT EXISTS idx_reservation_active_end ON reservation (end_time) WHERE cancelled = false^;
+CREATE INDEX IF NOT EXISTS idx_reservation_user ON reservation (user_id, start_time)^;
+
+-- vehicle.updated_at z zegara bazy przy kazdym zapisie, takze UPDATE-ach zbiorczych (markRented) i imporcie;
+-- COUNT + MAX(updated_at) to odcisk floty porownywany przez wezly (CatalogVersionTracker)
+CREATE OR REPLACE FUNCTION touch_updated_at() RETURNS trigger AS $$
+BEGIN
+    NEW.updated_at := clock_timestamp();
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql^;
+DROP TRIGGER IF EXISTS trg_vehicle_updated_at ON vehicle^;
+CREATE TRIGGER trg_vehicle_updated_at BEFORE INSERT OR UPDATE ON vehicle FOR EACH ROW EXECUTE FUNCTION touch_updated_at()^;
+CREATE INDEX IF NOT EXISTS idx_vehicle_updated_at ON vehicle (updated_at)^;
+
+-- vehicle.location_received_at z zegara bazy przy kazdej nowej pozycji (zmiana wspolrzednych lub czasu urzadzenia);
+-- przebieg statusu porownuje go z LOCALTIMESTAMP, wiec rozjazd zegarow wezlow nie gubi pozycji
+CREATE OR REPLACE FUNCTION touch_location_received_at() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' OR NEW.latitude IS DISTINCT FROM OLD.latitude OR NEW.longitude IS DISTINCT FROM OLD.longitude
+            OR NEW.last_location_update IS DISTINCT FROM OLD.last_location_update THEN
+        NEW.location_received_at := clock_timestamp();
+    END IF;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql^;
+DROP TRIGGER IF EXISTS trg_vehicle_location_received_at ON vehicle^;
+CREATE TRIGGER trg_vehicle_location_received_at BEFORE INSERT OR UPDATE ON vehicle FOR EACH ROW EXECUTE FUNCTION touch_location_received_at()^;
+
+-- reservation.updated_at tez z zegara bazy - odcisk rezerwacji (ReservationIndex) nie zalezy od zegarow wezlow
+DROP TRIGGER IF EXISTS trg_reservation_updated_at ON reservation^;
+CREATE TRIGGER trg_reservation_updated_at BEFORE INSERT OR UPDATE ON reservation FOR EACH ROW EXECUTE FUNCTION touch_updated_at()^;
@@ -0,0 +1,61 @@
+package org.example.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PointGridTest {
+    private static final double CELL_SIZE = 0.005;
+
+    @Test
+    void findsPointsBeyondRingLimit() {
+        PointGrid grid = new PointGrid(CELL_SIZE);
+        grid.put(1, 52.2292, 21.0122);
+        // Krakow i Gdansk - ponad 250 km, czyli dalej niz pierscienie przeszukiwane komorka po komorce
+        grid.put(2, 50.0647, 19.9450);
+        grid.put(3, 54.3520, 18.6466);
+
+        List<PointGrid.Neighbor> nearest = grid.nearest(52.2292, 21.0122, 3, null);
+
+        assertEquals(3, nearest.size());
+        assertEquals(1, nearest.get(0).getId());
+        assertEquals(2, nearest.get(1).getId());
+        assertEquals(3, nearest.get(2).getId());
+    }
+
+    @Test
+    void matchesBruteForce() {
+        Random random = new Random(11);
+        PointGrid grid = new PointGrid(CELL_SIZE);
+        List<double[]> points = new ArrayList<>();
+        // gesto w miescie i pojedynczo po calym kraju
+        for (int i = 0; i < 3000; i++) {
+            double spread = i % 100 == 0 ? 5 : 0.1;
+            double[] point = {52.2292 + (random.nextDouble() - 0.5) * 2 * spread, 21.0122 + (random.nextDouble() - 0.5) * 2 * spread};
+            points.add(point);
+            grid.put(i, point[0], point[1]);
+        }
+        for (int query = 0; query < 300; query++) {
+            double latitude = 52.2292 + (random.nextDouble() - 0.5) * 10;
+            double longitude = 21.0122 + (random.nextDouble() - 0.5) * 10;
+            int k = 1 + random.nextInt(20);
+            // co drugi punkt odfiltrowany, zeby zmusic wyszukiwanie do dalszych pierscieni
+            List<PointGrid.Neighbor> nearest = grid.nearest(latitude, longitude, k, id -> id % 2 == 0);
+
+            List<Double> expected = new ArrayList<>();
+            for (int i = 0; i < points.size(); i += 2) {
+                expected.add(GeoUtils.distanceMeters(latitude, longitude, points.get(i)[0], points.get(i)[1]));
+            }
+            expected.sort(Comparator.naturalOrder());
+            assertEquals(k, nearest.size());
+            for (int i = 0; i < k; i++) {
+                assertEquals(expected.get(i).doubleValue(), nearest.get(i).getDistanceMeters(), 1e-6);
+            }
+        }
+    }
+}
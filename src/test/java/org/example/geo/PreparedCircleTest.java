@@ -0,0 +1,60 @@
+package org.example.geo;
+
+import org.example.model.AllowedLocation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreparedCircleTest {
+
+    @Test
+    void boundingBoxCoversWholeCircle() {
+        // duze strefy na wysokich szerokosciach - tam skrajna dlugosc jest wyraznie blizej bieguna niz srodek
+        double[][] centres = {{52.2292, 21.0122}, {69.65, 18.95}, {78.2, 15.6}, {-54.8, -68.3}, {0.5, 10.0}};
+        for (double[] centre : centres) {
+            for (int radius : new int[]{100, 5000, 50000, 200000}) {
+                PreparedCircle circle = new PreparedCircle(location(centre[0], centre[1], radius));
+                for (double bearing = 0; bearing < 360; bearing += 0.25) {
+                    double[] point = ZoneGridTest.destination(centre[0], centre[1], radius * 0.99999, bearing);
+                    assertTrue(circle.boundingBoxContains(point[0], point[1]),
+                            "srodek " + centre[0] + "," + centre[1] + " promien " + radius + " namiar " + bearing);
+                }
+            }
+        }
+    }
+
+    @Test
+    void containsMatchesHaversineDistance() {
+        Random random = new Random(7);
+        int mismatches = 0;
+        int checked = 0;
+        for (int i = 0; i < 200; i++) {
+            double latitude = -80 + random.nextDouble() * 160;
+            double longitude = -180 + random.nextDouble() * 360;
+            int radius = 50 + random.nextInt(100000);
+            PreparedCircle circle = new PreparedCircle(location(latitude, longitude, radius));
+            for (int j = 0; j < 2000; j++) {
+                double distance = radius * (0.95 + random.nextDouble() * 0.1);
+                double[] point = ZoneGridTest.destination(latitude, longitude, distance, random.nextDouble() * 360);
+                double exact = GeoUtils.distanceMeters(point[0], point[1], latitude, longitude);
+                if (Math.abs(exact - radius) < 1e-3) {
+                    continue;
+                }
+                checked++;
+                if (circle.contains(point[0], point[1]) != (exact <= radius)) {
+                    mismatches++;
+                }
+            }
+        }
+        assertTrue(checked > 390000);
+        assertEquals(0, mismatches);
+    }
+
+    private static AllowedLocation location(double latitude, double longitude, int radius) {
+        return new AllowedLocation(1L, "strefa", BigDecimal.valueOf(latitude), BigDecimal.valueOf(longitude), radius, false);
+    }
+}
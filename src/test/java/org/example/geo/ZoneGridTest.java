@@ -0,0 +1,92 @@
+package org.example.geo;
+
+import org.example.model.AllowedLocation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// siatka stref musi dawac to samo co pelny skan z haversine (zachowanie sprzed indeksu)
+class ZoneGridTest {
+
+    @Test
+    void pointJustInsideEdgeIsAllowed() {
+        AllowedLocation zone = circle(1L, 52.2292, 21.0122, 1000);
+        ZoneGrid grid = ZoneGrid.build(List.of(zone));
+
+        for (double bearing = 0; bearing < 360; bearing += 90) {
+            double[] point = destination(52.2292, 21.0122, 999.5, bearing);
+            assertTrue(grid.anyContains(point[0], point[1]), "namiar " + bearing);
+        }
+    }
+
+    @Test
+    void gridMatchesFullScan() {
+        List<AllowedLocation> zones = new ArrayList<>();
+        Random random = new Random(42);
+        long id = 1;
+        for (int radius : new int[]{50, 300, 1000, 5000, 20000}) {
+            for (int i = 0; i < 5; i++) {
+                zones.add(circle(id++, 52.0 + random.nextDouble() * 0.5, 20.8 + random.nextDouble() * 0.5, radius));
+            }
+        }
+        // strefy daleko od rownika, gdzie stopien dlugosci jest krotki
+        zones.add(circle(id++, 69.65, 18.95, 3000));
+        zones.add(circle(id, -54.8, -68.3, 8000));
+        ZoneGrid grid = ZoneGrid.build(zones);
+
+        int mismatches = 0;
+        int checked = 0;
+        for (AllowedLocation zone : zones) {
+            double lat = zone.getLatitude().doubleValue();
+            double lon = zone.getLongitude().doubleValue();
+            int radius = zone.getRadiusMeters();
+            for (int i = 0; i < 20000; i++) {
+                // wiekszosc punktow przy krawedzi, gdzie prostokat ograniczajacy ma znaczenie
+                double distance = radius * (0.98 + random.nextDouble() * 0.04);
+                double[] point = destination(lat, lon, distance, random.nextDouble() * 360);
+                if (Math.abs(GeoUtils.distanceMeters(point[0], point[1], lat, lon) - radius) < 1e-3) {
+                    continue;
+                }
+                checked++;
+                if (grid.anyContains(point[0], point[1]) != fullScan(zones, point[0], point[1])) {
+                    mismatches++;
+                }
+            }
+        }
+        assertTrue(checked > 500000);
+        assertEquals(0, mismatches);
+    }
+
+    private static boolean fullScan(List<AllowedLocation> zones, double latitude, double longitude) {
+        for (AllowedLocation zone : zones) {
+            double distance = GeoUtils.distanceMeters(latitude, longitude,
+                    zone.getLatitude().doubleValue(), zone.getLongitude().doubleValue());
+            if (distance <= zone.getRadiusMeters()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static AllowedLocation circle(long id, double latitude, double longitude, int radius) {
+        return new AllowedLocation(id, "strefa " + id, BigDecimal.valueOf(latitude), BigDecimal.valueOf(longitude), radius, false);
+    }
+
+    // punkt w odleglosci distance (m) od srodka w kierunku bearing (stopnie) na kuli o promieniu z GeoUtils
+    static double[] destination(double latitude, double longitude, double distance, double bearing) {
+        double delta = distance / GeoUtils.EARTH_RADIUS_METERS;
+        double theta = Math.toRadians(bearing);
+        double phi1 = Math.toRadians(latitude);
+        double lambda1 = Math.toRadians(longitude);
+        double phi2 = Math.asin(Math.sin(phi1) * Math.cos(delta) + Math.cos(phi1) * Math.sin(delta) * Math.cos(theta));
+        double lambda2 = lambda1 + Math.atan2(Math.sin(theta) * Math.sin(delta) * Math.cos(phi1),
+                Math.cos(delta) - Math.sin(phi1) * Math.sin(phi2));
+        return new double[]{Math.toDegrees(phi2), Math.toDegrees(lambda2)};
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.service;
+
+import org.example.repository.SchedulerLeaseRepository;
+import org.example.repository.impl.SchedulerLeaseRepositoryImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// dwa wezly na jednej bazie; SQL dzierzaw jest PostgreSQL-owy (LOCALTIMESTAMP + INTERVAL, ON CONFLICT), wiec prawdziwy PostgreSQL
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SchedulerLeaseRepositoryImpl.class)
+// bez transakcji testu - LOCALTIMESTAMP to czas startu transakcji, dzierzawa nigdy by nie wygasla
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class ClusterCoordinatorTest {
+    private static final long TTL_MS = 3000;
+    private static final int SHARDS = 4;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private SchedulerLeaseRepository leaseRepository;
+
+    @Test
+    void expiredSingletonLeaseIsTakenOver() throws InterruptedException {
+        ClusterCoordinator first = coordinator();
+        ClusterCoordinator second = coordinator();
+
+        assertTrue(first.acquireSingleton("singleton-test"));
+        assertFalse(second.acquireSingleton("singleton-test"));
+        // wlasciciel odnawia swoja dzierzawe
+        assertTrue(first.acquireSingleton("singleton-test"));
+
+        Thread.sleep(TTL_MS + 1000);
+
+        assertTrue(second.acquireSingleton("singleton-test"));
+        assertFalse(first.acquireSingleton("singleton-test"));
+        first.releaseAll();
+        second.releaseAll();
+    }
+
+    @Test
+    void shardsAreSplitAndTakenOverAfterExpiry() throws InterruptedException {
+        ClusterCoordinator first = coordinator();
+        ClusterCoordinator second = coordinator();
+
+        assertEquals(SHARDS, first.claimShards("shard-test").size());
+        // drugi wezel sie zglasza - pierwszy przy nastepnym przebiegu oddaje nadmiar
+        assertTrue(second.claimShards("shard-test").isEmpty());
+        Set<Integer> firstShards = first.claimShards("shard-test");
+        Set<Integer> secondShards = second.claimShards("shard-test");
+        assertEquals(SHARDS / 2, firstShards.size());
+        assertEquals(SHARDS / 2, secondShards.size());
+        Set<Integer> all = new HashSet<>(firstShards);
+        all.addAll(secondShards);
+        assertEquals(SHARDS, all.size());
+
+        // pierwszy wezel przestaje odnawiac - po wygasnieciu drugi przejmuje wszystkie shardy
+        Thread.sleep(TTL_MS + 1000);
+        assertEquals(SHARDS, second.claimShards("shard-test").size());
+        second.releaseAll();
+    }
+
+    private ClusterCoordinator coordinator() {
+        ClusterCoordinator coordinator = new ClusterCoordinator(leaseRepository);
+        ReflectionTestUtils.setField(coordinator, "shardCount", SHARDS);
+        ReflectionTestUtils.setField(coordinator, "leaseTtlMs", TTL_MS);
+        return coordinator;
+    }
+}
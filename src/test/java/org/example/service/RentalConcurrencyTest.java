@@ -0,0 +1,156 @@
+package org.example.service;
+
+import org.example.model.Car;
+import org.example.model.User;
+import org.example.repository.RentalRepository;
+import org.example.repository.UserRepository;
+import org.example.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// wiele rownoczesnych wypozyczen i zwrotow - na pojazd najwyzej jedno aktywne wypozyczenie (warunkowy UPDATE w bazie)
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class RentalConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int VEHICLES = 4;
+    private static final int ROUNDS = 20;
+    private static final int OPERATIONS_PER_ROUND = 10;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private RentalService rentalService;
+    @Autowired
+    private RentalRepository rentalRepository;
+    @Autowired
+    private VehicleRepository vehicleRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void onlyOneConcurrentRentSucceeds() throws Exception {
+        Long vehicleId = createVehicles("WX 1", 1).get(0);
+        List<Long> userIds = createUsers("wyscig");
+
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (Long userId : userIds) {
+            tasks.add(() -> rentalService.rent(vehicleId, userId) != null);
+        }
+        int succeeded = 0;
+        for (boolean result : runTogether(tasks)) {
+            if (result) {
+                succeeded++;
+            }
+        }
+
+        assertEquals(1, succeeded);
+        assertConsistent(vehicleId, 1);
+    }
+
+    @Test
+    void rentsAndReturnsKeepOneActiveRentalPerVehicle() throws Exception {
+        List<Long> vehicleIds = createVehicles("WX 2", VEHICLES);
+        List<Long> userIds = createUsers("runda");
+        // udane wypozyczenia minus udane zwroty - po kazdej rundzie musi sie rownac liczbie aktywnych wypozyczen
+        Map<Long, AtomicInteger> balance = new HashMap<>();
+        vehicleIds.forEach(id -> balance.put(id, new AtomicInteger()));
+
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (Long userId : userIds) {
+                tasks.add(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < OPERATIONS_PER_ROUND; i++) {
+                        Long vehicleId = vehicleIds.get(random.nextInt(vehicleIds.size()));
+                        if (random.nextBoolean()) {
+                            if (rentalService.rent(vehicleId, userId) != null) {
+                                balance.get(vehicleId).incrementAndGet();
+                            }
+                        } else if (rentalService.returnRental(vehicleId, userId) != null) {
+                            balance.get(vehicleId).decrementAndGet();
+                        }
+                    }
+                    return true;
+                });
+            }
+            runTogether(tasks);
+
+            for (Long vehicleId : vehicleIds) {
+                int active = balance.get(vehicleId).get();
+                assertTrue(active == 0 || active == 1, "runda " + round + ", pojazd " + vehicleId + ": bilans " + active);
+                assertConsistent(vehicleId, active);
+            }
+        }
+    }
+
+    private List<Long> createVehicles(String platePrefix, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(vehicleRepository.save(new Car("Toyota", "Corolla", 2020, 150, platePrefix + i, Map.of())).getId());
+        }
+        return ids;
+    }
+
+    private List<Long> createUsers(String loginPrefix) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            ids.add(userRepository.save(User.builder().login(loginPrefix + i).password("haslo").build()).getId());
+        }
+        return ids;
+    }
+
+    // wszystkie zadania ruszaja razem po zwolnieniu zatrzasku
+    private static <T> List<T> runTogether(List<Callable<T>> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void assertConsistent(Long vehicleId, int expectedActive) {
+        long active = rentalRepository.findByVehicleId(vehicleId).stream()
+                .filter(rental -> !rental.isReturned())
+                .count();
+        assertEquals(expectedActive, active);
+        assertEquals(active == 1, vehicleRepository.findById(vehicleId).isRented());
+    }
+}